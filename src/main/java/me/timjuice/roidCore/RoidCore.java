@@ -1,11 +1,21 @@
 package me.timjuice.roidCore;
 
 import lombok.Getter;
+import me.timjuice.roidCore.commands.CommandDispatcher;
 import me.timjuice.roidCore.commands.CommandManager;
 import me.timjuice.roidCore.commands.TestCommand;
+import me.timjuice.roidCore.config.ConfigFileWatcher;
 import me.timjuice.roidCore.config.CoreMessageConfig;
+import me.timjuice.roidCore.players.OnlinePlayerIndex;
+import me.timjuice.roidCore.players.PermissionCache;
+import me.timjuice.roidCore.players.PlayerListener;
+import me.timjuice.roidCore.players.PlayerNameIndex;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Getter
 public class RoidCore extends JavaPlugin {
     @Getter
@@ -14,11 +24,22 @@ public class RoidCore extends JavaPlugin {
     private CoreMessageConfig messageConfig;
 
     protected CommandManager commandManager;
+    private ExecutorService asyncExecutor;
+    private PlayerNameIndex playerNameIndex;
+    private final PermissionCache permissionCache = new PermissionCache();
+    private ConfigFileWatcher configWatcher;
 
     @Override
     public void onEnable() {
         instance = this;
         messageConfig = new CoreMessageConfig(this);
+        configWatcher = new ConfigFileWatcher(this);
+        configWatcher.watch(messageConfig.getConfigFile(), messageConfig::reloadConfig); // Pick up edits without a restart
+        asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        playerNameIndex = new PlayerNameIndex(this, new File(getDataFolder(), "players.idx"), asyncExecutor);
+        permissionCache.hookLuckPerms(this);
+        OnlinePlayerIndex.getInstance().addAll(getServer().getOnlinePlayers()); // Players already online after a reload
+        getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
 
         commandManager = new CommandManager(this, "roidcore");
         commandManager.addCommand(new TestCommand());
@@ -26,6 +47,10 @@ public class RoidCore extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        // Plugin shutdown logic
+        // Hand the shared preprocess listener over to another RoidCore plugin if this one owned it
+        CommandDispatcher.getInstance().unregisterAll(this);
+        if (playerNameIndex != null) playerNameIndex.close(); // Writes the names recorded last
+        if (asyncExecutor != null) asyncExecutor.shutdown();
+        if (configWatcher != null) configWatcher.close();
     }
 }
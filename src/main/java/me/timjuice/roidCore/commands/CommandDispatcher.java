@@ -0,0 +1,204 @@
+package me.timjuice.roidCore.commands;
+
+import me.timjuice.roidCore.utils.CaseFoldedIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * The single {@link PlayerCommandPreprocessEvent} listener shared by every {@link CommandManager} on the server.
+ * Commands that no manager has a preprocess alias for are rejected with one hash lookup on the first token,
+ * before anything is allocated.
+ * <p>
+ * It also forwards {@link PlayerJoinEvent} and {@link PlayerQuitEvent} so managers can load and release per-player state,
+ * and on Paper routes async tab completion to managers that opted in.
+ * A single timer task, bound to the same plugin as the listener, advances every manager's cooldown wheel.
+ * </p>
+ */
+public final class CommandDispatcher {
+    private static CommandDispatcher instance;
+
+    private final List<CommandManager> managers = new ArrayList<>();
+    private final Listener listener = new Listener() {};
+    private volatile CaseFoldedIndex<CommandManager[]> firstTokenIndex = CaseFoldedIndex.empty();
+    // Command labels of managers completing off the main thread, read by Paper's async tab complete threads
+    private volatile CaseFoldedIndex<CommandManager> asyncTabCompleteIndex = CaseFoldedIndex.empty();
+    private Plugin owner;
+    private BukkitTask tickTask;
+
+    private CommandDispatcher() {
+    }
+
+    public static synchronized CommandDispatcher getInstance() {
+        if (instance == null) {
+            instance = new CommandDispatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a manager. The listener is bound to the first manager's plugin.
+     */
+    synchronized void register(CommandManager manager) {
+        managers.add(manager);
+        if (owner == null) {
+            bind(manager.getRoidPlugin());
+        }
+        refresh();
+    }
+
+    /**
+     * Removes and shuts down every manager of a plugin that is being disabled. If the listener belonged to that plugin,
+     * it is moved to one of the remaining plugins so the other managers keep working.
+     *
+     * @param plugin The plugin being disabled
+     */
+    public synchronized void unregisterAll(Plugin plugin) {
+        managers.removeIf(manager -> {
+            if (manager.getRoidPlugin() != plugin) return false;
+            manager.shutdown();
+            return true;
+        });
+
+        if (owner == plugin) {
+            HandlerList.unregisterAll(listener);
+            tickTask.cancel();
+            owner = null;
+            for (CommandManager manager : managers) {
+                if (manager.getRoidPlugin().isEnabled()) {
+                    bind(manager.getRoidPlugin());
+                    break;
+                }
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Rebuilds the first token and async tab complete indexes, called whenever a manager's aliases or settings change.
+     */
+    synchronized void refresh() {
+        Map<String, List<CommandManager>> owners = new HashMap<>();
+        for (CommandManager manager : managers) {
+            for (String token : manager.getPreprocessFirstTokens()) {
+                owners.computeIfAbsent(token, k -> new ArrayList<>()).add(manager);
+            }
+        }
+
+        Map<String, CommandManager[]> entries = new HashMap<>();
+        owners.forEach((token, list) -> entries.put(token, list.toArray(new CommandManager[0])));
+        firstTokenIndex = CaseFoldedIndex.of(entries);
+
+        Map<String, CommandManager> labels = new HashMap<>();
+        for (CommandManager manager : managers) {
+            if (!manager.isAsyncTabComplete()) continue;
+            for (String label : manager.getTabCompleteLabels()) {
+                labels.putIfAbsent(label, manager);
+            }
+        }
+        asyncTabCompleteIndex = CaseFoldedIndex.of(labels);
+    }
+
+    /**
+     * Completes a command line from Paper's async tab complete event.
+     *
+     * @param sender The sender completing the command
+     * @param buffer The full command line, with a leading '/' for players
+     * @return The suggestions, or null if no manager completes the command off the main thread
+     */
+    List<String> completeAsync(CommandSender sender, String buffer) {
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int end = buffer.indexOf(' ', start);
+        if (end == -1) return null; // The label itself is completed by the server
+
+        // Strip the namespace of labels like "plugin:command"
+        int colon = buffer.lastIndexOf(':', end);
+        if (colon >= start) start = colon + 1;
+
+        CommandManager manager = asyncTabCompleteIndex.get(buffer, start, end);
+        if (manager == null) return null;
+
+        String[] args = buffer.substring(end + 1).split(" ", -1);
+        return manager.completeAsync(sender, buffer.substring(start, end), args);
+    }
+
+    private void bind(Plugin plugin) {
+        Bukkit.getPluginManager().registerEvent(
+            PlayerCommandPreprocessEvent.class,
+            listener,
+            EventPriority.NORMAL,
+            (listener, event) -> {
+                if (!(event instanceof PlayerCommandPreprocessEvent e)) return;
+                handle(e);
+            },
+            plugin
+        );
+        Bukkit.getPluginManager().registerEvent(
+            PlayerJoinEvent.class,
+            listener,
+            EventPriority.MONITOR,
+            (listener, event) -> {
+                if (!(event instanceof PlayerJoinEvent e)) return;
+                handleJoin(e);
+            },
+            plugin
+        );
+        Bukkit.getPluginManager().registerEvent(
+            PlayerQuitEvent.class,
+            listener,
+            EventPriority.MONITOR,
+            (listener, event) -> {
+                if (!(event instanceof PlayerQuitEvent e)) return;
+                handleQuit(e);
+            },
+            plugin
+        );
+        PaperTabCompleteHook.register(plugin, listener, this);
+        tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        owner = plugin;
+    }
+
+    private synchronized void tick() {
+        long now = System.currentTimeMillis();
+        // Indexed, a cooldown callback may register another manager
+        for (int i = 0; i < managers.size(); i++) {
+            managers.get(i).tick(now);
+        }
+    }
+
+    private synchronized void handleJoin(PlayerJoinEvent event) {
+        for (CommandManager manager : managers) {
+            manager.handleJoin(event.getPlayer());
+        }
+    }
+
+    private synchronized void handleQuit(PlayerQuitEvent event) {
+        for (CommandManager manager : managers) {
+            manager.handleQuit(event.getPlayer());
+        }
+    }
+
+    private void handle(PlayerCommandPreprocessEvent event) {
+        String message = event.getMessage();
+        int end = message.indexOf(' ', 1);
+        if (end == -1) end = message.length();
+
+        // Skip the '/' and check the first token in place
+        CommandManager[] candidates = firstTokenIndex.get(message, 1, end);
+        if (candidates == null) return;
+
+        // Managers only tokenize once one of their aliases matched and the input was admitted
+        for (CommandManager manager : candidates) {
+            if (manager.handlePreprocessEvent(event)) return;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package me.timjuice.roidCore.commands;
+
+/**
+ * Index-based view over raw command input. Tokens are stored as offsets into the original string,
+ * so a String is only created when an argument actually asks for one.
+ * <p>
+ * Tokens are separated by spaces. A token starting with a double quote runs until the next double quote,
+ * which allows multi-word values like {@code "Hello world"}. That closing quote must end the token, i.e. be followed
+ * by a space or the end of the input. Otherwise, or without a closing quote, the opening quote is treated literally,
+ * so {@code "a"b} is the single token {@code "a"b}.
+ * </p>
+ */
+public final class CommandInput {
+    private static final int STRIDE = 4; // start, end, raw start, raw end
+
+    private final String source;
+    private int[] bounds;
+    private int size;
+
+    private CommandInput(String source) {
+        this.source = source;
+        this.bounds = new int[8 * STRIDE];
+    }
+
+    /**
+     * Tokenizes the source string starting at the given index.
+     *
+     * @param source The raw input, e.g. a chat message
+     * @param from Index of the first character to tokenize, e.g. 1 to skip the leading '/'
+     * @return The tokenized input
+     */
+    public static CommandInput tokenize(String source, int from) {
+        CommandInput input = new CommandInput(source);
+        int length = source.length();
+        int i = from;
+
+        while (i < length) {
+            // Skip separators
+            while (i < length && source.charAt(i) == ' ') i++;
+            if (i >= length) break;
+
+            if (source.charAt(i) == '"') {
+                int closing = source.indexOf('"', i + 1);
+                if (closing != -1 && (closing + 1 == length || source.charAt(closing + 1) == ' ')) {
+                    input.add(i + 1, closing, i, closing + 1);
+                    i = closing + 1;
+                    continue;
+                }
+            }
+
+            int end = source.indexOf(' ', i);
+            if (end == -1) end = length;
+            input.add(i, end, i, end);
+            i = end;
+        }
+
+        return input;
+    }
+
+    /**
+     * Tokenizes arguments that were already split on spaces, e.g. by Bukkit's command map.
+     * They are joined back once so quoted values and the original spacing survive.
+     * <p>
+     * The tokens can differ from the arguments Bukkit passed: arguments from an opening quote up to a closing quote
+     * become one token without the quotes, e.g. {@code "Hello} and {@code world"} become {@code Hello world},
+     * and the empty arguments Bukkit produces for repeated spaces are skipped. Input without quotes splits the same.
+     * </p>
+     *
+     * @param args The pre-split arguments
+     * @return The tokenized input
+     */
+    public static CommandInput of(String[] args) {
+        return tokenize(String.join(" ", args), 0);
+    }
+
+    private void add(int start, int end, int rawStart, int rawEnd) {
+        int index = size * STRIDE;
+        if (index + STRIDE > bounds.length) {
+            int[] grown = new int[bounds.length * 2];
+            System.arraycopy(bounds, 0, grown, 0, bounds.length);
+            bounds = grown;
+        }
+        bounds[index] = start;
+        bounds[index + 1] = end;
+        bounds[index + 2] = rawStart;
+        bounds[index + 3] = rawEnd;
+        size++;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the token at the given index, without surrounding quotes.
+     *
+     * @param index The token index
+     * @return The token as a new String
+     */
+    public String token(int index) {
+        return source.substring(start(index), end(index));
+    }
+
+    public int start(int index) {
+        return bounds[checkIndex(index) * STRIDE];
+    }
+
+    public int end(int index) {
+        return bounds[checkIndex(index) * STRIDE + 1];
+    }
+
+    public int length(int index) {
+        return end(index) - start(index);
+    }
+
+    public boolean isQuoted(int index) {
+        return bounds[checkIndex(index) * STRIDE + 2] != start(index);
+    }
+
+    /**
+     * Gets the first character of a token, or 0 for an empty quoted token.
+     */
+    public char firstChar(int index) {
+        return length(index) == 0 ? 0 : source.charAt(start(index));
+    }
+
+    /**
+     * Compares a token with a string without creating a substring.
+     */
+    public boolean tokenEquals(int index, String value) {
+        return length(index) == value.length() && source.regionMatches(start(index), value, 0, value.length());
+    }
+
+    public boolean tokenEqualsIgnoreCase(int index, String value) {
+        return length(index) == value.length() && source.regionMatches(true, start(index), value, 0, value.length());
+    }
+
+    /**
+     * Gets the original text covering a range of tokens, including quotes and the player's spacing.
+     * This holds for a single token too, use {@link #token(int)} for its value without quotes.
+     *
+     * @param fromIndex The first token, inclusive
+     * @param toIndex The last token, exclusive
+     * @return The original text between the two tokens
+     */
+    public String slice(int fromIndex, int toIndex) {
+        return source.substring(bounds[checkIndex(fromIndex) * STRIDE + 2], bounds[checkIndex(toIndex - 1) * STRIDE + 3]);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for " + size + " tokens");
+        }
+        return index;
+    }
+}
@@ -1,28 +1,42 @@
 package me.timjuice.roidCore.commands;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import me.timjuice.roidCore.RoidCore;
+import me.timjuice.roidCore.commands.admission.AdmissionPolicy;
+import me.timjuice.roidCore.commands.admission.CommandAdmission;
 import me.timjuice.roidCore.commands.arguments.Arguments;
 import me.timjuice.roidCore.commands.arguments.CommandArgument;
 import me.timjuice.roidCore.commands.arguments.InfiniteStringArgument;
+import me.timjuice.roidCore.commands.cooldown.CooldownBackend;
+import me.timjuice.roidCore.commands.cooldown.CooldownEntry;
+import me.timjuice.roidCore.commands.cooldown.CooldownLog;
+import me.timjuice.roidCore.commands.cooldown.CooldownReplicator;
+import me.timjuice.roidCore.commands.cooldown.CooldownStore;
 import me.timjuice.roidCore.utils.ConsoleLogger;
+import me.timjuice.roidCore.utils.FuzzyIndex;
+import me.timjuice.roidCore.utils.PrefixIndex;
+import me.timjuice.roidCore.utils.TimeUtil;
+import me.timjuice.roidCore.utils.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
-import java.text.DecimalFormat;
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static me.timjuice.roidCore.utils.FormatUtil.tc;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class CommandManager implements CommandExecutor, TabCompleter {
+    private static final long COOLDOWN_WHEEL_TICK_MILLIS = 50L;
+    private static final long COOLDOWN_PURGE_INTERVAL_MILLIS = 60_000L;
+    private static final int MAX_DID_YOU_MEAN = 3;
+
     private final LinkedHashMap<String, SubCommand> subCommands = new LinkedHashMap<>();
     private final HelpCommand commandHelp;
     @Getter
@@ -31,18 +45,62 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     @Setter
     private String basePermission;
     private final String[] aliases;
-    private final Map<UUID, Map<String, Long>> cooldowns = new HashMap<>();
+    // Input limits and rate limits checked before a player's command is parsed
+    @Getter
+    private final CommandAdmission admission = new CommandAdmission(AdmissionPolicy.UNLIMITED);
+    // Expiry timestamps by player and cooldown id, the id is assigned to each subcommand in addCommand
+    @Getter
+    private final CooldownStore cooldownStore = new CooldownStore();
+    // Recent suggestions of arguments with a suggestion cache TTL
+    @Getter
+    private final TabCompletionCache tabCompletionCache = new TabCompletionCache();
+    // Clears each cooldown the moment it expires, so the store never has to be scanned
+    private final TimingWheel cooldownWheel;
+    private long nextCooldownPurge;
+    // Cooldown ids by cooldown key, kept by clearCommands so a re-registered command finds its running cooldowns again
+    private final Map<Long, Integer> cooldownIds = new HashMap<>();
+    // Subcommands by cooldown id, null while the command isn't registered
+    private final List<SubCommand> cooldownCommands = new ArrayList<>();
+    // Opened on the async executor when the first subcommand with a persistent cooldown is added
+    private CooldownLog cooldownLog;
+    // Active cooldowns read from the log that no registered subcommand has claimed yet, null until the log is replayed
+    private Map<Long, List<CooldownEntry>> replayedCooldowns;
+    // Subcommands with a cooldown by their stable cooldown key, used to apply cooldowns read from the backend
+    private final Map<Long, SubCommand> cooldownKeys = new HashMap<>();
+    private CooldownReplicator cooldownReplicator;
+    // Players whose cooldowns have been read from the backend, and those being read right now, main thread only
+    private final Set<UUID> remoteCooldownsLoaded = new HashSet<>();
+    private final Set<UUID> remoteCooldownsLoading = new HashSet<>();
+    @Getter(AccessLevel.PACKAGE)
     private final RoidCore roidPlugin;
     private final String baseDescription;
     private CommandMap bukkitCommandMap;
     private final Map<String, SubCommand> preprocessAliasMap = new HashMap<>();
+    // Lowercase subcommand name/alias -> subcommand in registration order, kept in sync by addCommand and clearCommands.
+    // Changed by the main thread while holding its lock, which also guards building the registry.
+    private final Map<String, SubCommand> subCommandIndex = new LinkedHashMap<>();
+    // Immutable copy of the subcommand lookups so they can be read off the main thread.
+    // Dropped by every change and built again on the next read, so registering many commands builds it once.
+    private volatile Registry registry = Registry.EMPTY;
+    private volatile long registryVersion;
+    // Subcommand names and aliases for "did you mean" suggestions, main thread only
+    private FuzzyIndex<SubCommand> similarNames = new FuzzyIndex<>(2);
+    // Whether Paper's async tab complete event may complete this manager's commands off the main thread
+    @Getter
+    private boolean asyncTabComplete;
+    private final Set<String> baseCommandNames = new HashSet<>();
 
     public CommandManager(RoidCore roidPlugin, String baseCmdName, String basePermission, String baseDescription, String[] aliases) {
         this.roidPlugin = roidPlugin;
+        this.cooldownWheel = new TimingWheel(roidPlugin, COOLDOWN_WHEEL_TICK_MILLIS, System.currentTimeMillis());
         this.baseCmdName = baseCmdName;
         this.basePermission = basePermission;
         this.baseDescription = baseDescription;
         this.aliases = (aliases != null) ? aliases : new String[0]; // Default to empty array if null
+        this.baseCommandNames.add(baseCmdName.toLowerCase(Locale.ROOT));
+        for (String alias : this.aliases) {
+            this.baseCommandNames.add(alias.toLowerCase(Locale.ROOT));
+        }
 
         initializeCommandMap();
 
@@ -57,7 +115,7 @@ public class CommandManager implements CommandExecutor, TabCompleter {
             roidPlugin.getCommand(baseCmdName).setTabCompleter(this);
         }
 
-        registerPreprocessListener();
+        CommandDispatcher.getInstance().register(this);
     }
 
     public CommandManager(RoidCore roidPlugin, String baseCmdName, String[] aliases) {
@@ -68,79 +126,185 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         this(roidPlugin, baseCmdName, "", "Base " + baseCmdName + " command", null);
     }
 
-    private void registerPreprocessListener() {
-        Bukkit.getPluginManager().registerEvent(
-            PlayerCommandPreprocessEvent.class,
-            new Listener() {},
-            EventPriority.NORMAL,
-            (listener, event) -> {
-                if (!(event instanceof PlayerCommandPreprocessEvent e)) return;
-                handlePreprocessEvent(e);
-            },
-            roidPlugin
-        );
-    }
-
-    private void handlePreprocessEvent(PlayerCommandPreprocessEvent event) {
-        String message = event.getMessage().substring(1); // Remove the '/'
-        String[] parts = message.split(" ");
-        if (parts.length == 0) return;
+    /**
+     * Handles a preprocess event routed here by the {@link CommandDispatcher}.
+     * The message is only tokenized once one of the aliases matched and the input was admitted.
+     *
+     * @param event The event
+     * @return true if one of this manager's preprocess aliases matched
+     */
+    boolean handlePreprocessEvent(PlayerCommandPreprocessEvent event) {
+        String message = event.getMessage();
+
+        // Locate the first two words in place, skipping the '/'
+        int firstStart = skipSpaces(message, 1);
+        int firstEnd = wordEnd(message, firstStart);
+        int secondStart = skipSpaces(message, firstEnd);
+        int secondEnd = wordEnd(message, secondStart);
 
         // Combine first two parts for potential alias (e.g., "f sideclaim")
-        String potentialAlias = parts.length > 1 ? parts[0] + " " + parts[1] : parts[0];
+        String potentialAlias = secondStart < secondEnd
+            ? message.substring(firstStart, firstEnd) + " " + message.substring(secondStart, secondEnd)
+            : message.substring(firstStart, firstEnd);
         SubCommand subCommand = preprocessAliasMap.get(potentialAlias.toLowerCase());
 
-        if (subCommand == null) return;
+        if (subCommand == null) return false;
+        event.setCancelled(true);
 
-        // Check permissions
-        if (subCommand.requiresPermission() &&
-            !event.getPlayer().hasPermission(subCommand.getPermission()) &&
-            !event.getPlayer().isOp()) {
-            event.getPlayer().sendMessage(roidPlugin.getMessageConfig().getNoPermissionMessage());
-            event.setCancelled(true);
-            return;
+        Player player = event.getPlayer();
+        CommandAdmission.Result result = admission.checkInput(message, 1);
+        if (result.isAdmitted()) result = admission.peek(player.getUniqueId(), System.nanoTime());
+        if (!result.isAdmitted()) {
+            rejectCommand(player, result);
+            return true;
         }
 
-        // Handle player-only commands
-        if (subCommand.isPlayerOnly() && !(event.getPlayer() instanceof Player)) {
-            event.getPlayer().sendMessage(roidPlugin.getMessageConfig().getOnlyPlayersCommandMessage());
-            event.setCancelled(true);
-            return;
+        // Arguments start after the two command parts
+        dispatch(player, subCommand, CommandInput.tokenize(message, 1), 2, potentialAlias);
+        return true;
+    }
+
+    private static int skipSpaces(String message, int index) {
+        while (index < message.length() && message.charAt(index) == ' ') index++;
+        return index;
+    }
+
+    private static int wordEnd(String message, int index) {
+        while (index < message.length() && message.charAt(index) != ' ') index++;
+        return index;
+    }
+
+    /**
+     * Counts a rejected command and tells the player, at most once per notice interval.
+     */
+    private void rejectCommand(Player player, CommandAdmission.Result result) {
+        if (!admission.reject(player.getUniqueId(), System.currentTimeMillis())) return;
+        player.sendMessage(result == CommandAdmission.Result.RATE_LIMITED
+            ? roidPlugin.getMessageConfig().getCommandRateLimitedMessage()
+            : roidPlugin.getMessageConfig().getCommandInputTooLongMessage());
+    }
+
+    /**
+     * Replaces the limits applied to players' commands before they are parsed.
+     * Managers start without limits, {@link AdmissionPolicy#RECOMMENDED} is a reasonable choice for public servers.
+     *
+     * @param policy The new limits, {@link AdmissionPolicy#UNLIMITED} to turn admission control off
+     */
+    public void setAdmissionPolicy(AdmissionPolicy policy) {
+        admission.setPolicy(policy);
+    }
+
+    /**
+     * Releases the cooldown state of a player that left, routed here by the {@link CommandDispatcher}.
+     * Cooldowns that are still running are kept so reconnecting doesn't reset them.
+     */
+    void handleQuit(Player player) {
+        cooldownStore.release(player.getUniqueId(), System.currentTimeMillis());
+        admission.release(player.getUniqueId());
+        tabCompletionCache.invalidate(player);
+        remoteCooldownsLoaded.remove(player.getUniqueId()); // Read again on the next join, another server may have changed them
+    }
+
+    /**
+     * Reads the cooldowns of a player that joined from the cooldown backend, if one is set.
+     * Dispatch doesn't wait for it, until the read completes only local cooldowns apply.
+     */
+    void handleJoin(Player player) {
+        if (cooldownReplicator != null) {
+            loadRemoteCooldowns(player.getUniqueId());
         }
+    }
 
-        // Extract arguments (skip the command parts)
-        String[] args = Arrays.copyOfRange(parts, 2, parts.length);
+    /**
+     * Advances the cooldown wheel, called every tick by the {@link CommandDispatcher}.
+     * Cooldowns are started on the main thread, so the wheel is advanced there as well.
+     * Once a minute the store is also swept, for cooldowns set on it directly that the wheel doesn't know about.
+     */
+    void tick(long now) {
+        cooldownWheel.advance(now);
+        if (now >= nextCooldownPurge) {
+            nextCooldownPurge = now + COOLDOWN_PURGE_INTERVAL_MILLIS;
+            cooldownStore.purgeExpired(now);
+        }
+    }
 
-        // Validate arguments count
-        if (args.length < subCommand.getMinArgs()) {
-            event.getPlayer().sendMessage(ChatColor.RED + "Not enough args! Use: " +
-                ChatColor.DARK_RED + String.format("/%s %s", parts[0] + " " + parts[1], subCommand.getUsage()));
-            event.setCancelled(true);
+    /**
+     * Gets the first words of all preprocess aliases, used by the dispatcher to reject unrelated commands.
+     */
+    Set<String> getPreprocessFirstTokens() {
+        Set<String> tokens = new HashSet<>();
+        for (String alias : preprocessAliasMap.keySet()) {
+            int space = alias.indexOf(' ');
+            tokens.add(space == -1 ? alias : alias.substring(0, space));
+        }
+        return tokens;
+    }
+
+    /**
+     * Runs a resolved subcommand against its compiled plan: sender checks, argument parsing,
+     * cooldown and execution. Shared by the command executor and the preprocess listener.
+     */
+    private void dispatch(CommandSender sender, SubCommand subcommand, CommandInput input, int offset, String commandLabel) {
+        // Draw from the player's and the subcommand's rate limit before doing any work
+        if (sender instanceof Player player) {
+            CommandAdmission.Result result = admission.acquire(player.getUniqueId(), subcommand.getCooldownId(),
+                subcommand.getRateLimitBurst(), subcommand.getRateLimitPerSecond(), System.nanoTime());
+            if (!result.isAdmitted()) {
+                rejectCommand(player, result);
+                return;
+            }
+        }
+
+        // Handle player-only command
+        if (subcommand.isPlayerOnly() && !(sender instanceof Player)) {
+            sender.sendMessage(roidPlugin.getMessageConfig().getOnlyPlayersCommandMessage());
             return;
         }
 
-        // Validate and convert arguments
-        Arguments arguments = validateAndConvertArguments(subCommand, args, event.getPlayer());
-        if (arguments == null) {
-            event.setCancelled(true);
+        // Check permission
+        if (!subcommand.canUse(sender)) {
+            sender.sendMessage(roidPlugin.getMessageConfig().getNoPermissionMessage());
             return;
         }
 
-        // Handle cooldown
-        if (subCommand.getCooldown() > 0) {
-            if (isOnCooldown(event.getPlayer(), subCommand)) {
-                String timeLeft = getCooldownTimeLeft(event.getPlayer(), subCommand);
-                event.getPlayer().sendMessage(ChatColor.RED + "You must wait " +
-                    ChatColor.WHITE + timeLeft + ChatColor.RED + " seconds before using this command again.");
-                event.setCancelled(true);
+        // Validate and convert arguments, continuing right away unless an argument resolves asynchronously
+        CompletableFuture<Arguments> parsed = subcommand.getPlan().parse(roidPlugin, sender, input, offset, commandLabel);
+        if (parsed.isDone()) {
+            finishDispatch(sender, subcommand, parsed.join());
+        } else {
+            parsed.thenAccept(arguments -> finishDispatch(sender, subcommand, arguments))
+                .exceptionally(error -> {
+                    ConsoleLogger.error(roidPlugin, String.format("Failed to dispatch command '%s'", subcommand.getName()), error);
+                    return null;
+                });
+        }
+    }
+
+    private void finishDispatch(CommandSender sender, SubCommand subcommand, Arguments arguments) {
+        if (arguments == null) {
+            return; // An error message has already been sent
+        }
+
+        // Handle cooldown logic
+        if (sender instanceof Player player && subcommand.getCooldown() > 0) {
+            long now = System.currentTimeMillis();
+            long remaining = cooldownStore.getRemaining(player.getUniqueId(), subcommand.getCooldownId(), now);
+            if (remaining > 0) {
+                String timeLeft = TimeUtil.formatSecondsTenths(remaining);
+                player.sendMessage(ChatColor.RED + "You must wait " + ChatColor.WHITE + timeLeft + ChatColor.RED + " seconds before using this command again.");
                 return;
             }
-            updateCooldown(event.getPlayer(), subCommand);
+            // Read through on a local miss if the join-time read hasn't succeeded, this use is still decided locally
+            if (cooldownReplicator != null && !remoteCooldownsLoaded.contains(player.getUniqueId())) {
+                loadRemoteCooldowns(player.getUniqueId());
+            }
+            long expiresAt = now + subcommand.getCooldown() * 1000L;
+            startCooldown(player.getUniqueId(), subcommand.getCooldownId(), expiresAt);
+            recordCooldown(player.getUniqueId(), subcommand, expiresAt);
         }
 
-        // Execute command and cancel event
-        subCommand.execute(event.getPlayer(), arguments);
-        event.setCancelled(true);
+        // Execute the subcommand, async subcommands continue on a virtual thread
+        subcommand.invoke(sender, arguments);
     }
 
     private void initializeCommandMap() {
@@ -236,6 +400,16 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         if (bukkitCommandMap == null) return;
 
         preprocessAliasMap.clear();
+        synchronized (subCommandIndex) {
+            subCommandIndex.clear();
+            registryVersion++;
+            registry = null;
+        }
+        similarNames = new FuzzyIndex<>(2);
+        tabCompletionCache.clear();
+        Collections.fill(cooldownCommands, null);
+        cooldownKeys.clear();
+        CommandDispatcher.getInstance().refresh();
 
 //        // Unregister base command
 //        bukkitCommandMap.getCommand(baseCmdName).unregister(bukkitCommandMap);
@@ -254,11 +428,21 @@ public class CommandManager implements CommandExecutor, TabCompleter {
 
     @Override
     public boolean onCommand(CommandSender commandSender, Command command, String alias, String[] args) {
+        // Drop oversized or throttled input before it is joined and tokenized
+        if (commandSender instanceof Player player) {
+            CommandAdmission.Result result = admission.checkInput(alias, args);
+            if (result.isAdmitted()) result = admission.peek(player.getUniqueId(), System.nanoTime());
+            if (!result.isAdmitted()) {
+                rejectCommand(player, result);
+                return true;
+            }
+        }
+
         boolean isDirectExecute = !isBaseCommand(alias) && subCommandExists(alias);
 
         // If no arguments are provided and the command is the base command
         if (args.length == 0 && command.getName().equalsIgnoreCase(this.getBaseCmdName())) {
-            if (commandSender.hasPermission(commandHelp.getPermission()) || !commandHelp.requiresPermission()) {
+            if (commandHelp.canUse(commandSender)) {
                 commandHelp.execute(commandSender, new Arguments(roidPlugin));
             } else {
                 commandSender.sendMessage(roidPlugin.getMessageConfig().getNoPermissionMessage());
@@ -266,79 +450,80 @@ public class CommandManager implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        // Loop through registered subcommands
-        for (SubCommand subcommand : subCommands.values()) {
-            // Check if the command matches the subcommand name or any of its aliases
-            int argsOffset = 1;
-            if (isDirectExecute) {
-                // If the command is directly executed, check against subcommand name and aliases
-                if (!alias.equalsIgnoreCase(subcommand.getName()) && !subcommand.getAliases().contains(alias.toLowerCase())) {
-                    continue;
-                }
-                argsOffset = 0; // No need to shift arguments when directly executing
-            } else {
-                // If not directly executed, check against the first argument (subcommand name)
-                if (!args[0].equalsIgnoreCase(subcommand.getName()) && !subcommand.getAliases().contains(args[0].toLowerCase())) {
-                    continue;
-                }
-            }
+        // Resolve the subcommand either from the label (direct commands) or from the first argument
+        int argsOffset = isDirectExecute ? 0 : 1;
+        SubCommand subcommand = isDirectExecute ? getSubCommand(alias) : (args.length > 0 ? getSubCommand(args[0]) : null);
 
-            // Handle player-only command
-            if (subcommand.isPlayerOnly() && !(commandSender instanceof Player)) {
-                commandSender.sendMessage(roidPlugin.getMessageConfig().getOnlyPlayersCommandMessage());
-                return true;
-            }
-
-            // Check permission
-            if (subcommand.requiresPermission() && !commandSender.hasPermission(subcommand.getPermission()) && !commandSender.isOp()) {
-                commandSender.sendMessage(roidPlugin.getMessageConfig().getNoPermissionMessage());
-                return true;
-            }
-
-            // Check argument count
-            if ((args.length - argsOffset) < subcommand.getMinArgs()) {
-                boolean baseCommandUsed = isBaseCommand(alias);
-                if (baseCommandUsed) { // If player executed the subcommand through the base command
-                    commandSender.sendMessage(ChatColor.RED + "Not enough args! Use: " + ChatColor.DARK_RED + String.format("/%s %s %s", alias, args[0], subcommand.getUsage()));
-                } else { // If player ran the subcommand directly (for registerDirectly commands)
-                    commandSender.sendMessage(ChatColor.RED + "Not enough args! Use: " + ChatColor.DARK_RED + String.format("/%s %s", alias, subcommand.getUsage()));
-                }
-
-                return true;
-            }
-
-            // Validate and convert arguments
-            Arguments arguments = validateAndConvertArguments(subcommand, Arrays.copyOfRange(args, argsOffset, args.length), commandSender);
-            if (arguments == null) {
-                return true; // An error message has already been sent
-            }
-
-            // Handle cooldown logic
-            if (commandSender instanceof Player player && subcommand.getCooldown() > 0) {
-                if (isOnCooldown(player, subcommand)) {
-                    String timeLeft = getCooldownTimeLeft(player, subcommand);
-                    player.sendMessage(ChatColor.RED + "You must wait " + ChatColor.WHITE + timeLeft + ChatColor.RED + " seconds before using this command again.");
-                    return true;
-                } else {
-                    updateCooldown(player, subcommand); // Update the player's cooldown
-                }
-            }
-
-            // Execute the subcommand
-            subcommand.execute(commandSender, arguments);
+        if (subcommand != null) {
+            String commandLabel = isDirectExecute ? alias : alias + " " + args[0];
+            dispatch(commandSender, subcommand, CommandInput.of(args), argsOffset, commandLabel);
             return true;
         }
 
         // If the command entered isn't valid
-        commandSender.sendMessage(roidPlugin.getMessageConfig().getInvalidCommandMessage().replace("{PLUGIN_NAME}", roidPlugin.getName()));
+        commandSender.sendMessage(roidPlugin.getMessageConfig().getInvalidCommandTemplate().render(roidPlugin.getName()));
+        if (args.length > 0) {
+            sendDidYouMean(commandSender, alias, args[0]);
+        }
         return true;
     }
 
+    /**
+     * Suggests the subcommands whose name or alias is closest to an unknown subcommand, if the sender may use them.
+     */
+    private void sendDidYouMean(CommandSender sender, String alias, String input) {
+        if (input.length() < 2) return;
+
+        // One typo for short names, two for longer ones
+        int maxDistance = input.length() <= 4 ? 1 : 2;
+        List<SubCommand> suggested = new ArrayList<>(MAX_DID_YOU_MEAN);
+        StringBuilder suggestions = new StringBuilder();
+        for (FuzzyIndex.Match<SubCommand> match : similarNames.search(input, maxDistance)) {
+            SubCommand subCommand = match.value();
+            if (suggested.contains(subCommand) || !subCommand.canUse(sender)) continue;
+
+            if (!suggested.isEmpty()) suggestions.append(", ");
+            suggestions.append('/').append(alias).append(' ').append(match.key());
+            suggested.add(subCommand);
+            if (suggested.size() == MAX_DID_YOU_MEAN) break;
+        }
+
+        if (suggested.isEmpty()) return;
+        sender.sendMessage(roidPlugin.getMessageConfig().getDidYouMeanTemplate().render(suggestions));
+    }
+
     public void addCommand(SubCommand subCommand) {
         boolean commandValid = isSubCommandValid(subCommand);
         if (!commandValid) return;
 
         this.subCommands.put(subCommand.getClass().getName(), subCommand);
+        subCommand.getPlan(); // Compile the parse plan up front so dispatch never has to
+        int cooldownId = cooldownIds.computeIfAbsent(CooldownEntry.keyOf(subCommand.getName()), key -> {
+            cooldownCommands.add(null);
+            return cooldownCommands.size() - 1;
+        });
+        subCommand.bind(this, cooldownId);
+        cooldownCommands.set(cooldownId, subCommand);
+        if (subCommand.getCooldown() > 0) {
+            cooldownKeys.put(CooldownEntry.keyOf(subCommand.getName()), subCommand);
+        }
+        if (subCommand.isPersistentCooldown() && subCommand.getCooldown() > 0) {
+            restorePersistentCooldowns(subCommand);
+        }
+
+        // Index the name and every alias so lookups are a single hash probe
+        synchronized (subCommandIndex) {
+            subCommandIndex.put(subCommand.getName().toLowerCase(Locale.ROOT), subCommand);
+            for (String alias : subCommand.getAliases()) {
+                subCommandIndex.put(alias.toLowerCase(Locale.ROOT), subCommand);
+            }
+            registryVersion++;
+            registry = null;
+        }
+        similarNames.add(subCommand.getName(), subCommand);
+        for (String alias : subCommand.getAliases()) {
+            similarNames.add(alias, subCommand);
+        }
 
         // Register preprocess aliases
         for (String alias : subCommand.getPreprocessAliases()) {
@@ -351,6 +536,9 @@ public class CommandManager implements CommandExecutor, TabCompleter {
             }
             preprocessAliasMap.put(lowercaseAlias, subCommand);
         }
+        if (!subCommand.getPreprocessAliases().isEmpty() || (asyncTabComplete && subCommand.isRegisterDirectly())) {
+            CommandDispatcher.getInstance().refresh();
+        }
 
         // If the command should be registered directly, register it with Bukkit
         if (subCommand.isRegisterDirectly()) {
@@ -367,42 +555,95 @@ public class CommandManager implements CommandExecutor, TabCompleter {
     }
 
     public SubCommand getSubCommand(String searchName) {
-        for (SubCommand subcommand : subCommands.values()) {
-            if (subcommand.getName().equalsIgnoreCase(searchName)) {
-                return subcommand;
-            }
-            if (subcommand.getAliases().contains(searchName.toLowerCase())) {
-                return subcommand;
-            }
-        }
-        return null;
+        // toLowerCase returns the same instance when the input is already lowercase, so the common case doesn't allocate
+        return registry().lookup().get(searchName.toLowerCase(Locale.ROOT));
     }
 
     public Boolean subCommandExists(String searchName) {
-        for (SubCommand subcommand : subCommands.values()) {
-            if (subcommand.getName().equalsIgnoreCase(searchName)) return true;
-            if (subcommand.getAliases().contains(searchName.toLowerCase())) return true;
-        }
-        return false;
+        return registry().lookup().containsKey(searchName.toLowerCase(Locale.ROOT));
     }
 
     public List<String> getUsedCommandGroups() {
-        List<String> commandGroup = new ArrayList<>();
+        Set<String> commandGroups = new LinkedHashSet<>();
         for (SubCommand subcommand : subCommands.values()) {
-            if (commandGroup.contains(subcommand.getGroup())) continue;
-            commandGroup.add(subcommand.getGroup());
+            commandGroups.add(subcommand.getGroup());
         }
-        return commandGroup;
+        return new ArrayList<>(commandGroups);
+    }
+
+    /**
+     * Gets a number that changes whenever subcommands are added or cleared,
+     * e.g. for {@link me.timjuice.roidCore.commands.arguments.OptionsSource#versioned versioned options}.
+     */
+    public long getRegistryVersion() {
+        return registryVersion;
+    }
+
+    private Registry registry() {
+        Registry current = registry;
+        if (current != null) return current;
+
+        synchronized (subCommandIndex) {
+            if (registry == null) {
+                Map<String, SubCommand> names = new LinkedHashMap<>();
+                for (SubCommand subCommand : subCommandIndex.values()) {
+                    names.putIfAbsent(subCommand.getName(), subCommand);
+                }
+                registry = new Registry(Map.copyOf(subCommandIndex), PrefixIndex.of(names));
+            }
+            return registry;
+        }
+    }
+
+    /**
+     * Lets Paper's {@code AsyncTabCompleteEvent} complete this manager's commands off the main thread.
+     * Completion falls back to the main thread for subcommands overriding {@link SubCommand#onTabComplete}
+     * and for arguments whose suggestions aren't {@link CommandArgument#isSuggestionThreadSafe() thread-safe}.
+     * Without Paper this has no effect.
+     *
+     * @param asyncTabComplete true to complete off the main thread where possible
+     */
+    public void setAsyncTabComplete(boolean asyncTabComplete) {
+        this.asyncTabComplete = asyncTabComplete;
+        CommandDispatcher.getInstance().refresh();
+    }
+
+    /**
+     * Gets the labels this manager completes: the base command, its aliases and every directly registered subcommand.
+     */
+    Set<String> getTabCompleteLabels() {
+        Set<String> labels = new HashSet<>(baseCommandNames);
+        for (SubCommand subCommand : subCommands.values()) {
+            if (!subCommand.isRegisterDirectly()) continue;
+            labels.add(subCommand.getName().toLowerCase(Locale.ROOT));
+            for (String alias : subCommand.getAliases()) {
+                labels.add(alias.toLowerCase(Locale.ROOT));
+            }
+        }
+        return labels;
     }
 
     public Boolean isBaseCommand(String command) {
-        return Arrays.stream(this.aliases).anyMatch(baseAlias -> baseAlias.equalsIgnoreCase(command)) || command.equalsIgnoreCase(this.getBaseCmdName());
+        return baseCommandNames.contains(command.toLowerCase(Locale.ROOT));
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        return complete(sender, alias, args, false);
+    }
+
+    /**
+     * Completes a command from a thread other than the main thread.
+     *
+     * @return The suggestions, or null if completing needs the main thread
+     */
+    List<String> completeAsync(CommandSender sender, String alias, String[] args) {
+        return complete(sender, alias, args, true);
+    }
+
+    private List<String> complete(CommandSender sender, String alias, String[] args, boolean offMainThread) {
         // Check if the sender has permission for the base command
-        if (!(sender.hasPermission(basePermission) || sender.isOp())) {
+        if (!roidPlugin.getPermissionCache().allows(sender, basePermission)) {
             return Collections.emptyList(); // Return no suggestions if base permission is not present
         }
 
@@ -410,12 +651,12 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         SubCommand subcommand = getSubCommand(alias);
         if (subcommand != null) {
             // Check if sender has permission to use this subcommand
-            if (subcommand.requiresPermission() && !(sender.hasPermission(subcommand.getPermission()) || sender.isOp())) {
+            if (!subcommand.canUse(sender)) {
                 return Collections.emptyList(); // No suggestions if permission is missing
             }
 
             // Pass remaining args to the subcommand for its specific tab completion logic
-            return subcommand.onTabComplete(sender, Arrays.copyOfRange(args, 0, args.length));
+            return completeSubCommand(sender, subcommand, Arrays.copyOfRange(args, 0, args.length), offMainThread);
         }
 
         if (args.length == 0) {
@@ -423,147 +664,220 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         }
 
         // Handle subcommand tab completion
-        subcommand = subCommands.values().stream()
-            .filter(cmd -> cmd.getName().equalsIgnoreCase(args[0]) || cmd.getAliases().contains(args[0].toLowerCase()))
-            .findFirst().orElse(null);
+        subcommand = getSubCommand(args[0]);
 
         if (subcommand != null) {
             // Check if sender has permission to use this subcommand
-            if (subcommand.requiresPermission() && !(sender.hasPermission(subcommand.getPermission()) || sender.isOp())) {
+            if (!subcommand.canUse(sender)) {
                 return Collections.emptyList(); // No suggestions if permission is missing
             }
 
             // Pass remaining args to the subcommand for its specific tab completion logic
-            return subcommand.onTabComplete(sender, Arrays.copyOfRange(args, 1, args.length));
+            return completeSubCommand(sender, subcommand, Arrays.copyOfRange(args, 1, args.length), offMainThread);
         }
 
         // Provide list of subcommands for the first argument, considering permissions
         if (args.length == 1) {
-            return subCommands.values().stream()
-                .filter(cmd -> !cmd.requiresPermission() || sender.hasPermission(cmd.getPermission()) || sender.isOp()) // Filter by permissions
-                .map(SubCommand::getName)
-                .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
-                .collect(Collectors.toList());
+            PrefixIndex<SubCommand> names = registry().names();
+            int end = names.end(args[0]);
+            List<String> suggestions = new ArrayList<>();
+            for (int i = names.start(args[0]); i < end; i++) {
+                if (names.getValue(i).canUse(sender)) { // Filter by permissions
+                    suggestions.add(names.getKey(i));
+                }
+            }
+            return suggestions;
         }
 
         return Collections.emptyList();
     }
 
-    private boolean isOnCooldown(Player player, SubCommand subcommand) {
-        Map<String, Long> playerCooldowns = cooldowns.getOrDefault(player.getUniqueId(), new HashMap<>());
-        long lastUse = playerCooldowns.getOrDefault(subcommand.getName(), 0L);
-        return (System.currentTimeMillis() - lastUse) < (subcommand.getCooldown() * 1000L);
+    private static List<String> completeSubCommand(CommandSender sender, SubCommand subcommand, String[] args, boolean offMainThread) {
+        return offMainThread ? subcommand.completeOffMainThread(sender, args) : subcommand.onTabComplete(sender, args);
     }
 
-    // Get remaining cooldown time for a subcommand in seconds
-    private String getCooldownTimeLeft(Player player, SubCommand subcommand) {
-        Map<String, Long> playerCooldowns = cooldowns.get(player.getUniqueId());
+    /**
+     * Gets the time left on a player's cooldown for a subcommand of this manager.
+     *
+     * @return The remaining time in milliseconds, or 0 if the cooldown isn't active
+     */
+    public long getCooldownRemaining(Player player, SubCommand subcommand) {
+        if (subcommand.getCooldownId() == -1) return 0L;
+        return cooldownStore.getRemaining(player.getUniqueId(), subcommand.getCooldownId(), System.currentTimeMillis());
+    }
 
-        if (playerCooldowns == null || !playerCooldowns.containsKey(subcommand.getName())) {
-            return "0.0"; // No cooldown entry, returning 0 as a string
+    private void restorePersistentCooldowns(SubCommand subCommand) {
+        if (cooldownLog == null) {
+            openCooldownLog(); // Restores every persistent subcommand registered by the time it's replayed
+        } else if (replayedCooldowns != null) {
+            restoreReplayedCooldowns(subCommand);
         }
-
-        long lastUse = playerCooldowns.get(subcommand.getName());
-        long elapsedTime = System.currentTimeMillis() - lastUse;
-        double remainingTimeMillis = (subcommand.getCooldown() * 1000L) - elapsedTime;
-        double remainingTimeSeconds = Math.max(remainingTimeMillis / 1000.0, 0.0); // Ensure we don't return negative values
-
-        DecimalFormat df = new DecimalFormat("#.#");
-        return df.format(remainingTimeSeconds);
     }
 
-
-    // Update the player's cooldown for a specific subcommand
-    private void updateCooldown(Player player, SubCommand subcommand) {
-        cooldowns.computeIfAbsent(player.getUniqueId(), k -> new HashMap<>()).put(subcommand.getName(), System.currentTimeMillis());
+    /**
+     * Opens and replays the cooldown log on the async executor, then restores the cooldowns on the main thread.
+     * Cooldowns started in the meantime are already written to the log once it's open.
+     */
+    private void openCooldownLog() {
+        CooldownLog log = new CooldownLog(roidPlugin, new File(roidPlugin.getDataFolder(), "cooldowns-" + baseCmdName + ".log"), roidPlugin.getAsyncExecutor());
+        cooldownLog = log;
+        long now = System.currentTimeMillis();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return log.open(now);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, roidPlugin.getAsyncExecutor()).whenComplete((active, error) -> Bukkit.getScheduler().runTask(roidPlugin, () -> {
+            if (cooldownLog != log) return; // Shut down in the meantime
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                ConsoleLogger.error(roidPlugin, "Failed to open cooldown log, cooldowns won't persist: " + cause.getMessage());
+                cooldownLog = null; // Retried by the next persistent subcommand
+                return;
+            }
+            replayedCooldowns = new HashMap<>(active);
+            for (SubCommand subCommand : cooldownKeys.values()) {
+                if (subCommand.isPersistentCooldown()) restoreReplayedCooldowns(subCommand);
+            }
+        }));
     }
 
-    private Arguments validateAndConvertArguments(SubCommand subcommand, String[] args, CommandSender sender) {
-        List<CommandArgument<?>> subcommandArgs = subcommand.getArguments();
-        Arguments arguments = new Arguments(roidPlugin);
+    private void restoreReplayedCooldowns(SubCommand subCommand) {
+        List<CooldownEntry> entries = replayedCooldowns.remove(CooldownEntry.keyOf(subCommand.getName()));
+        if (entries == null) return;
 
-        StringBuilder infiniteStringBuilder = new StringBuilder();
+        long now = System.currentTimeMillis();
+        for (CooldownEntry entry : entries) {
+            // Keep whichever cooldown ends last, the command may have been used while the log was opening
+            if (entry.expiresAt() > now && entry.expiresAt() > cooldownStore.getExpiry(entry.uniqueId(), subCommand.getCooldownId())) {
+                startCooldown(entry.uniqueId(), subCommand.getCooldownId(), entry.expiresAt());
+            }
+        }
+    }
 
-        // Create a list of non-flag arguments while processing flags
-        List<String> nonFlagArgsList = new ArrayList<>();
+    /**
+     * Writes out pending persistent cooldowns, called by the {@link CommandDispatcher} when the plugin disables.
+     */
+    void shutdown() {
+        if (cooldownLog != null) {
+            cooldownLog.close();
+            cooldownLog = null;
+        }
+        if (cooldownReplicator != null) {
+            cooldownReplicator.close();
+            cooldownReplicator = null;
+        }
+    }
 
-        // First pass: process flags and collect non-flag arguments
-        for (String arg : args) {
-            if (arg.startsWith("-") && subcommand.getFlags().containsKey(arg)) {
-                arguments.setFlag(arg);
-            } else {
-                nonFlagArgsList.add(arg);
-            }
+    /**
+     * Shares this manager's cooldowns through a backend, e.g. with the other servers of a network.
+     * The local store keeps answering every cooldown check: new cooldowns are written behind in batches,
+     * and a player's cooldowns are read through from the backend when they join, or on their next local miss
+     * if that read failed. A previous backend is flushed and closed on the async executor.
+     *
+     * @param backend The backend, or null to keep cooldowns local
+     */
+    public void setCooldownBackend(CooldownBackend backend) {
+        if (cooldownReplicator != null) {
+            CooldownReplicator previous = cooldownReplicator;
+            cooldownReplicator = null;
+            roidPlugin.getAsyncExecutor().execute(previous::close); // Waits for the last batch, up to a few seconds
+        }
+        remoteCooldownsLoaded.clear();
+        remoteCooldownsLoading.clear();
+        if (backend == null) return;
+
+        cooldownReplicator = new CooldownReplicator(roidPlugin, backend);
+        cooldownReplicator.start();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadRemoteCooldowns(player.getUniqueId());
         }
+    }
 
-        // Convert list back to array for further processing
-        String[] nonFlagArgs = nonFlagArgsList.toArray(new String[0]);
+    private void loadRemoteCooldowns(UUID uniqueId) {
+        if (!remoteCooldownsLoading.add(uniqueId)) return; // Already being read
 
-        // Second pass: process regular arguments and handle default values
-        for (int i = 0; i < subcommandArgs.size(); i++) {
-            CommandArgument<?> commandArg = subcommandArgs.get(i);
+        CooldownReplicator replicator = cooldownReplicator;
+        replicator.load(uniqueId).whenComplete((cooldowns, error) -> {
+            if (error != null) {
+                ConsoleLogger.error(roidPlugin, "Failed to load cooldowns from the cooldown backend: " + error.getMessage());
+            }
+            // The store and the timing wheel belong to the main thread
+            Bukkit.getScheduler().runTask(roidPlugin, () -> {
+                if (replicator != cooldownReplicator) return; // The backend was replaced in the meantime
+                remoteCooldownsLoading.remove(uniqueId);
+                if (error != null) return;
+                remoteCooldownsLoaded.add(uniqueId);
+                applyRemoteCooldowns(uniqueId, cooldowns);
+            });
+        });
+    }
 
-//            // Check argument permission if provided
-//            if (commandArg.requiresPermission() && !sender.hasPermission(commandArg.getPermission()) && !sender.isOp()) {
-//                sender.sendMessage(roidPlugin.getMessageConfig().getNoPermissionMessage());
-//                return null;
-//            }
+    private void applyRemoteCooldowns(UUID uniqueId, Map<Long, Long> cooldowns) {
+        long now = System.currentTimeMillis();
+        cooldowns.forEach((key, expiresAt) -> {
+            SubCommand subCommand = cooldownKeys.get(key);
+            if (subCommand == null || expiresAt <= now) return;
+            // Keep whichever cooldown ends last, the local one may be newer than the backend's
+            if (expiresAt > cooldownStore.getExpiry(uniqueId, subCommand.getCooldownId())) {
+                startCooldown(uniqueId, subCommand.getCooldownId(), expiresAt);
+            }
+        });
+    }
 
-            // Check if we have an argument provided
-            if (i < nonFlagArgs.length) {
-                String arg = nonFlagArgs[i];
+    /**
+     * Hands a started or reset cooldown to the persistent log and the backend, neither blocks.
+     */
+    private void recordCooldown(UUID uniqueId, SubCommand subcommand, long expiresAt) {
+        if (subcommand.isPersistentCooldown() && cooldownLog != null) {
+            cooldownLog.append(uniqueId, CooldownEntry.keyOf(subcommand.getName()), expiresAt);
+        }
+        if (cooldownReplicator != null) {
+            cooldownReplicator.record(uniqueId, CooldownEntry.keyOf(subcommand.getName()), expiresAt);
+        }
+    }
 
-                // Check if player has permission to use this argument
-                if (commandArg.requiresPermission() && !sender.hasPermission(commandArg.getPermission()) && !sender.isOp()) {
-                    sender.sendMessage(tc(String.format("&cYou don't have permission to use argument '%s' in this command", commandArg.getName())));
-                    return null;
-              }
+    private void startCooldown(UUID uniqueId, int cooldownId, long expiresAt) {
+        cooldownStore.start(uniqueId, cooldownId, expiresAt);
+        cooldownWheel.schedule(expiresAt, () -> expireCooldown(uniqueId, cooldownId, expiresAt));
+    }
 
-                if (!commandArg.isValid(arg)) {
-                    sender.sendMessage(commandArg.getErrorMessage(arg));
-                    return null;
-                }
+    private void expireCooldown(UUID uniqueId, int cooldownId, long expiresAt) {
+        // The cooldown was reset or restarted in the meantime, a later timeout takes care of it
+        if (cooldownStore.getExpiry(uniqueId, cooldownId) != expiresAt) return;
 
-                if (commandArg instanceof InfiniteStringArgument) {
-                    String[] remainingArgs = Arrays.copyOfRange(nonFlagArgs, i, nonFlagArgs.length);
-                    infiniteStringBuilder.append(String.join(" ", remainingArgs));
-                    Object convertedValue = commandArg.convert(infiniteStringBuilder.toString());
-                    arguments.put(commandArg.getName(), convertedValue);
-                } else {
-                    Object convertedValue = commandArg.convert(arg);
-                    arguments.put(commandArg.getName(), convertedValue);
-                }
-            } else {
-                // No argument provided - check for default value
-                if (!commandArg.isRequired()) {
-                    Optional<?> defaultValue = commandArg.getDefaultValue();
-                    defaultValue.ifPresent(o -> arguments.put(commandArg.getName(), o));
-                } else {
-                    // Required argument missing
-                    sender.sendMessage(ChatColor.RED + "Missing required argument: " + commandArg.getName());
-                    return null;
-                }
-            }
+        cooldownStore.clear(uniqueId, cooldownId);
+        Player player = Bukkit.getPlayer(uniqueId);
+        SubCommand subCommand = cooldownCommands.get(cooldownId);
+        if (player != null && subCommand != null) {
+            subCommand.onCooldownReady(player);
         }
-
-        return arguments;
     }
 
+    /**
+     * Resets a player's cooldown for a subcommand of this manager.
+     */
+    public void resetCooldown(Player player, SubCommand subcommand) {
+        if (subcommand.getCooldownId() == -1) return;
+        cooldownStore.clear(player.getUniqueId(), subcommand.getCooldownId());
+        recordCooldown(player.getUniqueId(), subcommand, 0L);
+    }
 
     private boolean isSubCommandValid(SubCommand subCommand) {
         List<CommandArgument<?>> arguments = subCommand.getArguments();
 
         boolean hasOptionalArg = false;
 
-        // Check if the subcommand name or any of its aliases already exist
-        if (subCommandExists(subCommand.getName())) {
+        // Check if the subcommand name or any of its aliases already exist, against the index so the registry isn't built
+        if (subCommandIndex.containsKey(subCommand.getName().toLowerCase(Locale.ROOT))) {
             ConsoleLogger.error(roidPlugin, String.format(
                 "Subcommand name '%s' already exists. Skipping command '%s'",
                 subCommand.getName(), subCommand.getName()));
             return false;
         }
         for (String alias : subCommand.getAliases()) {
-            if (subCommandExists(alias)) {
+            if (subCommandIndex.containsKey(alias.toLowerCase(Locale.ROOT))) {
                 ConsoleLogger.error(roidPlugin, String.format(
                     "Subcommand alias '%s' already exists.",
                     alias));
@@ -599,4 +913,11 @@ public class CommandManager implements CommandExecutor, TabCompleter {
 
         return true;
     }
+
+    /**
+     * Subcommands by lowercase name and alias, and their names for tab completion.
+     */
+    private record Registry(Map<String, SubCommand> lookup, PrefixIndex<SubCommand> names) {
+        private static final Registry EMPTY = new Registry(Map.of(), PrefixIndex.empty());
+    }
 }
@@ -0,0 +1,244 @@
+package me.timjuice.roidCore.commands;
+
+import lombok.Getter;
+import me.timjuice.roidCore.RoidCore;
+import me.timjuice.roidCore.commands.arguments.ArgumentLayout;
+import me.timjuice.roidCore.commands.arguments.ArgumentResult;
+import me.timjuice.roidCore.commands.arguments.Arguments;
+import me.timjuice.roidCore.commands.arguments.CommandArgument;
+import me.timjuice.roidCore.commands.arguments.InfiniteStringArgument;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import me.timjuice.roidCore.players.PermissionCache;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static me.timjuice.roidCore.utils.FormatUtil.tc;
+
+/**
+ * Immutable parse plan of a {@link SubCommand}, compiled once when the command is registered.
+ * Holds everything that never changes between dispatches, so parsing doesn't have to recompute it.
+ */
+@Getter
+public final class CommandPlan {
+    private final CommandArgument<?>[] slots;
+    private final int requiredCount;
+    /**
+     * Index of the infinite string argument, or -1 if the subcommand doesn't have one.
+     */
+    private final int infiniteIndex;
+    private final String[] flags;
+    private final String usage;
+    /**
+     * Argument and flag names resolved to slot indices, shared by every parsed {@link Arguments}.
+     */
+    private final ArgumentLayout layout;
+    /**
+     * Interned permission node of each argument, -1 for arguments anyone may use.
+     */
+    private final int[] permissionIds;
+
+    private CommandPlan(CommandArgument<?>[] slots, int requiredCount, int infiniteIndex, String[] flags, String usage) {
+        this.slots = slots;
+        this.requiredCount = requiredCount;
+        this.infiniteIndex = infiniteIndex;
+        this.flags = flags;
+        this.usage = usage;
+
+        String[] argumentNames = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            argumentNames[i] = slots[i].getName();
+        }
+        this.layout = ArgumentLayout.of(argumentNames, flags);
+
+        this.permissionIds = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            permissionIds[i] = slots[i].requiresPermission() ? PermissionCache.nodeId(slots[i].getPermission()) : -1;
+        }
+    }
+
+    /**
+     * Compiles the plan of a subcommand.
+     *
+     * @param subCommand The subcommand to compile
+     * @return The compiled plan
+     */
+    public static CommandPlan compile(SubCommand subCommand) {
+        List<CommandArgument<?>> arguments = subCommand.getArguments();
+        CommandArgument<?>[] slots = arguments.toArray(new CommandArgument<?>[0]);
+
+        int requiredCount = 0;
+        int infiniteIndex = -1;
+        StringBuilder usageBuilder = new StringBuilder();
+        for (int i = 0; i < slots.length; i++) {
+            CommandArgument<?> argument = slots[i];
+            if (argument.isRequired()) requiredCount++;
+            if (argument instanceof InfiniteStringArgument && infiniteIndex == -1) infiniteIndex = i;
+            if (i > 0) usageBuilder.append(' ');
+            usageBuilder.append(argument.getUsage());
+        }
+
+        // Flag sets are tiny, a plain array lets tokens be compared in place without creating substrings
+        String[] flags = subCommand.getFlags().keySet().toArray(new String[0]);
+
+        return new CommandPlan(slots, requiredCount, infiniteIndex, flags, usageBuilder.toString());
+    }
+
+    /**
+     * Validates and converts the tokenized input into {@link Arguments}.
+     * Every problem is reported to the sender, in which case the result is null.
+     * <p>
+     * The returned future is already completed unless an argument resolves asynchronously.
+     * In that case it completes on the main thread once every pending argument is resolved.
+     * </p>
+     * <p>
+     * Flags are recognized anywhere before an infinite string argument and at the very end of it.
+     * The infinite string argument receives the original text, so the player's spacing is kept. Quotes are kept as
+     * typed too, also when the tail is a single quoted token, while every other argument gets its token unquoted.
+     * </p>
+     *
+     * @param plugin The plugin used for logging and permission checks
+     * @param sender The sender executing the command
+     * @param input The tokenized input
+     * @param offset Index of the first token that belongs to this subcommand
+     * @param commandLabel Label shown in front of the usage when not enough arguments were given, may be null
+     * @return A future of the parsed arguments, completed with null if the input is invalid
+     */
+    public CompletableFuture<Arguments> parse(RoidCore plugin, CommandSender sender, CommandInput input, int offset, String commandLabel) {
+        Arguments arguments = new Arguments(plugin, layout);
+        int tokenCount = input.size();
+
+        // Separate flags from positional tokens in a single pass, remembering only token indices
+        int[] positional = new int[Math.max(tokenCount - offset, 0)];
+        int count = 0;
+        int tailEnd = tokenCount;
+        for (int i = offset; i < tokenCount; i++) {
+            if (setFlag(arguments, input, i)) continue;
+            if (count == infiniteIndex) {
+                // The rest belongs to the infinite argument, only trailing flags are still picked up
+                while (tailEnd > i + 1 && setFlag(arguments, input, tailEnd - 1)) tailEnd--;
+                positional[count++] = i;
+                break;
+            }
+            positional[count++] = i;
+        }
+
+        if (count < requiredCount) {
+            String prefix = commandLabel == null ? "" : "/" + commandLabel + " ";
+            sender.sendMessage(ChatColor.RED + "Not enough args! Use: " + ChatColor.DARK_RED + prefix + usage);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Arguments resolved off the main thread, allocated only when a command has some
+        CommandArgument<?>[] pendingArgs = null;
+        int[] pendingSlots = null;
+        CompletableFuture<? extends ArgumentResult<?>>[] pendingFutures = null;
+        int pendingCount = 0;
+
+        for (int i = 0; i < slots.length; i++) {
+            CommandArgument<?> commandArg = slots[i];
+
+            // No argument provided - fall back to the default value
+            if (i >= count) {
+                if (commandArg.isRequired()) {
+                    sender.sendMessage(ChatColor.RED + "Missing required argument: " + commandArg.getName());
+                    return CompletableFuture.completedFuture(null);
+                }
+                int slot = i;
+                commandArg.getDefaultValue().ifPresent(o -> arguments.put(slot, o));
+                continue;
+            }
+
+            // Check if player has permission to use this argument
+            if (permissionIds[i] != -1 && !plugin.getPermissionCache().allows(sender, permissionIds[i])) {
+                sender.sendMessage(tc(String.format("&cYou don't have permission to use argument '%s' in this command", commandArg.getName())));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            String arg = i == infiniteIndex
+                ? input.slice(positional[i], tailEnd)
+                : input.token(positional[i]);
+
+            if (commandArg.isResolvedAsync()) {
+                if (!commandArg.matchesValidOptions(arg)) {
+                    sender.sendMessage(commandArg.getErrorMessage(arg));
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (pendingArgs == null) {
+                    pendingArgs = new CommandArgument<?>[slots.length];
+                    pendingSlots = new int[slots.length];
+                    pendingFutures = newFutureArray(slots.length);
+                }
+                pendingArgs[pendingCount] = commandArg;
+                pendingSlots[pendingCount] = i;
+                pendingFutures[pendingCount++] = commandArg.resolveAsync(arg);
+                continue;
+            }
+
+            // Validate and convert in one step, straight into the argument's slot
+            String error = commandArg.parseInto(arg, arguments, i);
+            if (error != null) {
+                sender.sendMessage(error);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            if (i == infiniteIndex) break; // The infinite argument consumed the rest of the input
+        }
+
+        if (pendingCount == 0) {
+            return CompletableFuture.completedFuture(arguments);
+        }
+        return completePending(plugin, sender, arguments, pendingArgs, pendingSlots, pendingFutures, pendingCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<? extends ArgumentResult<?>>[] newFutureArray(int length) {
+        return (CompletableFuture<? extends ArgumentResult<?>>[]) new CompletableFuture<?>[length];
+    }
+
+    /**
+     * Waits for every asynchronously resolved argument, then finishes on the main thread.
+     * A lookup that failed with an exception counts as invalid input.
+     */
+    private static CompletableFuture<Arguments> completePending(Plugin plugin, CommandSender sender, Arguments arguments,
+                                                                CommandArgument<?>[] pendingArgs, int[] pendingSlots,
+                                                                CompletableFuture<? extends ArgumentResult<?>>[] pendingFutures,
+                                                                int pendingCount) {
+        CompletableFuture<? extends ArgumentResult<?>>[] futures = newFutureArray(pendingCount);
+        System.arraycopy(pendingFutures, 0, futures, 0, pendingCount);
+
+        Executor mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+        return CompletableFuture.allOf(futures)
+            .handle((ignored, error) -> null)
+            .thenApplyAsync(ignored -> {
+                for (int i = 0; i < pendingCount; i++) {
+                    if (futures[i].isCompletedExceptionally()) {
+                        sender.sendMessage(ChatColor.RED + "Could not resolve argument: " + pendingArgs[i].getName());
+                        return null;
+                    }
+                    ArgumentResult<?> result = futures[i].join();
+                    if (!result.isSuccess()) {
+                        sender.sendMessage(result.getError());
+                        return null;
+                    }
+                    arguments.put(pendingSlots[i], result.getValue());
+                }
+                return arguments;
+            }, mainThread);
+    }
+
+    private boolean setFlag(Arguments arguments, CommandInput input, int index) {
+        if (flags.length == 0 || input.firstChar(index) != '-' || input.isQuoted(index)) return false;
+        for (int slot = 0; slot < flags.length; slot++) {
+            if (input.tokenEquals(index, flags[slot])) {
+                arguments.setFlag(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+}
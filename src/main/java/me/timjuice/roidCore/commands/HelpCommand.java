@@ -2,25 +2,49 @@ package me.timjuice.roidCore.commands;
 
 import me.timjuice.roidCore.RoidCore;
 import me.timjuice.roidCore.commands.arguments.Arguments;
+import me.timjuice.roidCore.commands.arguments.PositiveIntegerArgument;
 import me.timjuice.roidCore.commands.arguments.StringArgument;
+import me.timjuice.roidCore.config.CoreMessageConfig;
 import org.bukkit.command.CommandSender;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class HelpCommand extends SubCommand {
+    private static final int ENTRIES_PER_PAGE = 8;
+    private static final int MAX_GROUP_OVERVIEW_THRESHOLD = 10;
+    private static final int MAX_CACHED_RENDERINGS = 64;
+
     private final CommandManager baseCommand;
     private final RoidCore roidPlugin;
 
+    // Rendered help by the set of subcommands a sender may use, senders with the same permissions share one
+    private final Map<BitSet, RenderedHelp> renderings = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BitSet, RenderedHelp> eldest) {
+            return size() > MAX_CACHED_RENDERINGS;
+        }
+    };
+    private long renderedVersion = -1;
+    private CoreMessageConfig.Messages renderedMessages;
+
     public HelpCommand(RoidCore roidPlugin, CommandManager baseCommand) {
         super(new SubCommand.Builder("help")
                 .setDescription("Help command")
                 .addArgument(
                     StringArgument.builder("group")
                         .setRequired(false)
-                        .setValidOptions(() -> roidPlugin.getCommandManager().getUsedCommandGroups())
+                        // Suggested rather than valid, so a page number can be given instead of a group
+                        .setSuggestedOptions(baseCommand::getUsedCommandGroups, baseCommand::getRegistryVersion)
+                        .build()
+                )
+                .addArgument(
+                    PositiveIntegerArgument.builder("page")
+                        .setRequired(false)
                         .build()
                 )
             .setGroup("help")
@@ -31,66 +55,146 @@ public class HelpCommand extends SubCommand {
 
     @Override
     public void execute(CommandSender sender, Arguments args) {
-        Map<String, List<SubCommand>> groupedCommands = new HashMap<>();
-        List<SubCommand> allowedCommands = new ArrayList<>();
-        boolean isGroupRequested = args.has("group");
-        String requestedGroup;
+        String requestedGroup = args.has("group") ? args.get("group") : null;
+        int page = args.getInt("page", 1);
+
+        RenderedHelp help = getRendering(sender);
+
+        // "/help 2" asks for a page of the overview, unless there's a group called "2"
+        if (requestedGroup != null && !help.groupPages.containsKey(requestedGroup.toLowerCase(Locale.ROOT)) && isPageNumber(requestedGroup)) {
+            page = Integer.parseInt(requestedGroup);
+            requestedGroup = null;
+        }
+
+        String[] pages;
+        if (requestedGroup != null) {
+            pages = help.groupPages.get(requestedGroup.toLowerCase(Locale.ROOT));
+            if (pages == null) {
+                sender.sendMessage(roidPlugin.getMessageConfig().getHelpUnknownGroupTemplate()
+                        .render(requestedGroup, baseCommand.getBaseCmdName()));
+                return;
+            }
+        } else {
+            pages = help.overviewPages;
+        }
+
+        sender.sendMessage(pages[Math.min(page, pages.length) - 1]);
+    }
+
+    /**
+     * Drops every cached rendering.
+     * Renderings are dropped automatically when subcommands are added or cleared, or the messages are reloaded.
+     */
+    public void invalidateCache() {
+        renderings.clear();
+    }
+
+    private RenderedHelp getRendering(CommandSender sender) {
+        CoreMessageConfig.Messages messages = roidPlugin.getMessageConfig().getMessages();
+        long version = baseCommand.getRegistryVersion();
+        if (version != renderedVersion || messages != renderedMessages) {
+            renderings.clear();
+            renderedVersion = version;
+            renderedMessages = messages;
+        }
 
-        // Group commands by their group attribute and filter by permission
+        // The permission fingerprint: which subcommands, in registration order, the sender may use
+        List<SubCommand> allowedCommands = new ArrayList<>();
+        BitSet fingerprint = new BitSet();
+        int index = 0;
         for (SubCommand command : baseCommand.getSubCommands()) {
-            if (!sender.hasPermission(command.getPermission()) && !sender.isOp()) {
-                continue;
+            if (command.canUse(sender)) {
+                fingerprint.set(index);
+                allowedCommands.add(command);
             }
-            allowedCommands.add(command);
-            groupedCommands
-                    .computeIfAbsent(command.getGroup(), k -> new ArrayList<>())
-                    .add(command);
+            index++;
         }
 
-        if (isGroupRequested) {
-            requestedGroup = args.get("group");
-            StringBuilder helpMsgBuilder = new StringBuilder();
-            helpMsgBuilder.append(roidPlugin.getMessageConfig().getHelpCategoryHeader()
-                    .replace("{CATEGORY}", requestedGroup))
-                    .append("\n");
-
-            groupedCommands.get(requestedGroup).forEach((subCommand -> {
-                String message = roidPlugin.getMessageConfig().getHelpIndividualSubcommandFormat()
-                        .replace("{BASE_CMD}", baseCommand.getBaseCmdName())
-                        .replace("{SUB_CMD_NAME}", subCommand.getName())
-                        .replace("{SUB_CMD_DESCRIPTION}", subCommand.getDescription());
-                helpMsgBuilder.append(message).append("\n");
-            }));
-
-            sender.sendMessage(helpMsgBuilder.toString());
-            return;
+        RenderedHelp help = renderings.get(fingerprint);
+        if (help == null) {
+            help = render(messages, allowedCommands);
+            renderings.put(fingerprint, help);
         }
+        return help;
+    }
 
-        // Build help message
-        StringBuilder helpMsgBuilder = new StringBuilder();
-        helpMsgBuilder.append(roidPlugin.getMessageConfig().getHelpMessageHeader()
-                .replace("{PLUGIN_NAME}", roidPlugin.getName()))
-                .append("\n");
+    private RenderedHelp render(CoreMessageConfig.Messages messages, List<SubCommand> allowedCommands) {
+        String baseCmd = baseCommand.getBaseCmdName();
 
-        if (allowedCommands.size() > 10) {
+        // Group commands by their group attribute, keeping the registration order
+        Map<String, List<SubCommand>> groupedCommands = new LinkedHashMap<>();
+        for (SubCommand command : allowedCommands) {
+            groupedCommands.computeIfAbsent(command.getGroup(), k -> new ArrayList<>()).add(command);
+        }
+
+        List<String> overviewLines = new ArrayList<>();
+        if (allowedCommands.size() > MAX_GROUP_OVERVIEW_THRESHOLD) {
             // Display group help commands
             for (String groupName : groupedCommands.keySet()) {
-                helpMsgBuilder.append(roidPlugin.getMessageConfig().getHelpCommandGroupFormat()
-                        .replace("{BASE_CMD}", baseCommand.getBaseCmdName())
-                        .replace("{CMD_GROUP}", groupName)
-                        .replace("{CMD_GROUP}", groupName)).append("\n");
+                overviewLines.add(messages.getHelpCommandGroupTemplate().render(baseCmd, groupName));
             }
         } else {
             // Display all subcommands individually
             for (SubCommand command : allowedCommands) {
-                String message = roidPlugin.getMessageConfig().getHelpIndividualSubcommandFormat()
-                        .replace("{BASE_CMD}", baseCommand.getBaseCmdName())
-                        .replace("{SUB_CMD_NAME}", command.getName())
-                        .replace("{SUB_CMD_DESCRIPTION}", command.getDescription());
-                helpMsgBuilder.append(message).append("\n");
+                overviewLines.add(renderSubCommand(messages, command));
+            }
+        }
+        String overviewHeader = messages.getHelpMessageHeaderTemplate().render(roidPlugin.getName());
+        String[] overviewPages = paginate(messages, overviewHeader, overviewLines, "");
+
+        Map<String, String[]> groupPages = new LinkedHashMap<>();
+        groupedCommands.forEach((groupName, commands) -> {
+            List<String> lines = new ArrayList<>(commands.size());
+            for (SubCommand command : commands) {
+                lines.add(renderSubCommand(messages, command));
+            }
+            String header = messages.getHelpCategoryHeaderTemplate().render(groupName);
+            groupPages.put(groupName.toLowerCase(Locale.ROOT), paginate(messages, header, lines, groupName + " "));
+        });
+
+        return new RenderedHelp(overviewPages, groupPages);
+    }
+
+    private String renderSubCommand(CoreMessageConfig.Messages messages, SubCommand command) {
+        return messages.getHelpIndividualSubcommandTemplate()
+                .render(baseCommand.getBaseCmdName(), command.getName(), command.getDescription());
+    }
+
+    /**
+     * Splits the lines into pages, each sent as one message with the header and, if there are several pages, a footer.
+     */
+    private String[] paginate(CoreMessageConfig.Messages messages, String header, List<String> lines, String groupArgument) {
+        int pageCount = Math.max(1, (lines.size() + ENTRIES_PER_PAGE - 1) / ENTRIES_PER_PAGE);
+        String[] pages = new String[pageCount];
+
+        for (int page = 0; page < pageCount; page++) {
+            StringBuilder builder = new StringBuilder(header).append('\n');
+            int end = Math.min(lines.size(), (page + 1) * ENTRIES_PER_PAGE);
+            for (int i = page * ENTRIES_PER_PAGE; i < end; i++) {
+                builder.append(lines.get(i)).append('\n');
+            }
+
+            if (pageCount > 1) {
+                int nextPage = page + 2 > pageCount ? 1 : page + 2;
+                builder.append(messages.getHelpPageFooterTemplate()
+                        .render(page + 1, pageCount, baseCommand.getBaseCmdName(), groupArgument + nextPage)).append('\n');
             }
+            pages[page] = builder.toString();
         }
+        return pages;
+    }
+
+    private static boolean isPageNumber(String input) {
+        if (input.isEmpty() || input.length() > 9) return false;
+        for (int i = 0; i < input.length(); i++) {
+            if (!Character.isDigit(input.charAt(i))) return false;
+        }
+        return Integer.parseInt(input) > 0;
+    }
 
-        sender.sendMessage(helpMsgBuilder.toString());
+    /**
+     * Pre-rendered help pages for one set of permitted subcommands.
+     */
+    private record RenderedHelp(String[] overviewPages, Map<String, String[]> groupPages) {
     }
 }
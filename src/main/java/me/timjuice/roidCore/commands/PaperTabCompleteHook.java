@@ -0,0 +1,87 @@
+package me.timjuice.roidCore.commands;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Handles Paper's {@code AsyncTabCompleteEvent} through reflection, since RoidCore compiles against the Spigot API.
+ * <p>
+ * The event is fired off the main thread while a player types. Commands of managers that
+ * {@link CommandManager#setAsyncTabComplete(boolean) opted in} are completed right there. Everything else is left
+ * unhandled, so the server falls back to the regular synchronous tab completion.
+ * </p>
+ */
+final class PaperTabCompleteHook {
+    private static final String EVENT_CLASS = "com.destroystokyo.paper.event.server.AsyncTabCompleteEvent";
+
+    private final Method getSender;
+    private final Method getBuffer;
+    private final Method isHandled;
+    private final Method setHandled;
+    private final Method setCompletions;
+    private final Method isCommand; // Missing on older Paper versions
+
+    private PaperTabCompleteHook(Class<?> eventClass) throws NoSuchMethodException {
+        this.getSender = eventClass.getMethod("getSender");
+        this.getBuffer = eventClass.getMethod("getBuffer");
+        this.isHandled = eventClass.getMethod("isHandled");
+        this.setHandled = eventClass.getMethod("setHandled", boolean.class);
+        this.setCompletions = eventClass.getMethod("setCompletions", List.class);
+        Method command;
+        try {
+            command = eventClass.getMethod("isCommand");
+        } catch (NoSuchMethodException e) {
+            command = null;
+        }
+        this.isCommand = command;
+    }
+
+    /**
+     * Registers the handler if the server runs Paper.
+     *
+     * @return true if the event exists and the handler was registered
+     */
+    static boolean register(Plugin plugin, Listener listener, CommandDispatcher dispatcher) {
+        Class<? extends Event> eventClass;
+        PaperTabCompleteHook hook;
+        try {
+            eventClass = Class.forName(EVENT_CLASS).asSubclass(Event.class);
+            hook = new PaperTabCompleteHook(eventClass);
+        } catch (ClassNotFoundException | NoSuchMethodException | ClassCastException e) {
+            return false;
+        }
+
+        Bukkit.getPluginManager().registerEvent(
+            eventClass,
+            listener,
+            EventPriority.NORMAL,
+            (l, event) -> {
+                if (eventClass.isInstance(event)) hook.handle(event, dispatcher);
+            },
+            plugin
+        );
+        return true;
+    }
+
+    private void handle(Event event, CommandDispatcher dispatcher) {
+        try {
+            if ((boolean) isHandled.invoke(event)) return;
+            if (isCommand != null && !(boolean) isCommand.invoke(event)) return;
+
+            List<String> completions = dispatcher.completeAsync((CommandSender) getSender.invoke(event), (String) getBuffer.invoke(event));
+            if (completions == null) return; // Left to the synchronous completion
+
+            setCompletions.invoke(event, completions);
+            setHandled.invoke(event, true);
+        } catch (ReflectiveOperationException ignored) {
+            // Leaving the event unhandled falls back to the synchronous completion
+        }
+    }
+}
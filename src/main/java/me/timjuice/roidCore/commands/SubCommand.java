@@ -1,15 +1,22 @@
 package me.timjuice.roidCore.commands;
 
-import com.google.common.collect.Sets;
+import lombok.AccessLevel;
 import lombok.Getter;
 import me.timjuice.roidCore.RoidCore;
 import me.timjuice.roidCore.commands.arguments.Arguments;
 import me.timjuice.roidCore.commands.arguments.CommandArgument;
-import me.timjuice.roidCore.commands.arguments.InfiniteStringArgument;
-import org.bukkit.ChatColor;
+import me.timjuice.roidCore.players.PermissionCache;
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static me.timjuice.roidCore.utils.FormatUtil.tc;
 
 @Getter
 public abstract class SubCommand {
@@ -25,6 +32,26 @@ public abstract class SubCommand {
     private final List<CommandArgument<?>> arguments;
     private final Map<String, Boolean> flags;
     private final Set<String> preprocessAliases;
+    private final boolean async;
+    private final String cooldownReadyMessage;
+    private final boolean persistentCooldown;
+    private final int rateLimitBurst;
+    private final double rateLimitPerSecond;
+    @Getter(AccessLevel.NONE)
+    private final Set<String> aliasSet;
+    @Getter(AccessLevel.NONE)
+    private CommandPlan plan;
+    @Getter(AccessLevel.NONE)
+    private CommandManager manager;
+    // Interned permission node, -1 if the subcommand doesn't need a permission
+    @Getter(AccessLevel.NONE)
+    private final int permissionId;
+    // Whether a subclass replaced onTabComplete, which can't be assumed to be thread-safe
+    @Getter(AccessLevel.NONE)
+    private final boolean customTabComplete;
+    // Index of this subcommand in its manager's cooldown store, assigned on registration
+    @Getter(AccessLevel.PACKAGE)
+    private int cooldownId = -1;
 
     // Main constructor with cooldown
     protected SubCommand(String name, String[] aliases, String description, String permission, String syntax, boolean playerOnly, boolean registerDirectly, int cooldown, String group, List<CommandArgument<?>> arguments, Map<String, Boolean> flags, Set<String> preprocessAliases) {
@@ -40,6 +67,14 @@ public abstract class SubCommand {
         this.arguments = arguments;
         this.flags = flags;
         this.preprocessAliases = preprocessAliases;
+        this.async = false;
+        this.cooldownReadyMessage = null;
+        this.persistentCooldown = false;
+        this.rateLimitBurst = 0;
+        this.rateLimitPerSecond = 0;
+        this.permissionId = permission.isEmpty() ? -1 : PermissionCache.nodeId(permission);
+        this.aliasSet = toAliasSet(aliases);
+        this.customTabComplete = overridesTabComplete(getClass());
     }
 
     protected SubCommand(Builder builder) {
@@ -55,6 +90,14 @@ public abstract class SubCommand {
         this.arguments = builder.arguments;
         this.flags = builder.flags;
         this.preprocessAliases = builder.preprocessAliases;
+        this.async = builder.async;
+        this.cooldownReadyMessage = builder.cooldownReadyMessage;
+        this.persistentCooldown = builder.persistentCooldown;
+        this.rateLimitBurst = builder.rateLimitBurst;
+        this.rateLimitPerSecond = builder.rateLimitPerSecond;
+        this.permissionId = permission.isEmpty() ? -1 : PermissionCache.nodeId(permission);
+        this.aliasSet = toAliasSet(this.aliases);
+        this.customTabComplete = overridesTabComplete(getClass());
     }
 
     // Overloaded constructor without cooldown and group (defaults to "General")
@@ -72,32 +115,54 @@ public abstract class SubCommand {
         this(name, aliases, description, permission, syntax, playerOnly, false, cooldown, DefaultCommandGroup.NONE.getName(), List.of(), new HashMap<>(), new HashSet<>()); // Default to empty map for flags
     }
 
+    private static Set<String> toAliasSet(String[] aliases) {
+        if (aliases == null || aliases.length == 0) return Collections.emptySet();
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(aliases)));
+    }
+
+    // Built once in the constructor, aliases never change after that
     public Set<String> getAliases() {
-        return Sets.newHashSet(aliases);
+        return aliasSet;
     }
 
     public Boolean requiresPermission() {
         return !this.permission.isEmpty();
     }
 
-    public String getUsage() {
-        StringBuilder usageBuilder = new StringBuilder();
+    /**
+     * Checks whether the sender may use this subcommand, through the plugin's permission cache.
+     * <p>
+     * Decisions are dropped on quit, world change and op changes, and on LuckPerms recalculations when it's installed.
+     * Other permission plugins can't notify the cache, so a permission revoked through them may still be honored
+     * for up to a second, see {@link me.timjuice.roidCore.players.PermissionCache#setMaxAgeMillis(long)}.
+     * </p>
+     *
+     * @param sender The sender
+     * @return true if no permission is required, or the sender is op or has it
+     */
+    public boolean canUse(CommandSender sender) {
+        return permissionId == -1 || getPlugin().getPermissionCache().allows(sender, permissionId);
+    }
 
-        for (CommandArgument<?> argument : this.getArguments()) {
-            usageBuilder.append(argument.getUsage()).append(" ");
+    /**
+     * Gets the parse plan of this subcommand, compiling it on first use.
+     * CommandManager compiles it when the command is registered, so dispatch never pays for it.
+     *
+     * @return The compiled parse plan
+     */
+    public CommandPlan getPlan() {
+        if (plan == null) {
+            plan = CommandPlan.compile(this);
         }
+        return plan;
+    }
 
-        return usageBuilder.toString().trim();
+    public String getUsage() {
+        return getPlan().getUsage();
     }
 
     public int getMinArgs() {
-        int count = 0;
-        for (CommandArgument<?> arg : arguments) {
-            if (arg.isRequired()) {
-                count++;
-            }
-        }
-        return count; // Count of required arguments
+        return getPlan().getRequiredCount(); // Count of required arguments
     }
 
     public Set<String> getPreprocessAliases() {
@@ -111,6 +176,105 @@ public abstract class SubCommand {
 
     public abstract void execute(CommandSender sender, Arguments args);
 
+    /**
+     * Called on the main thread after an async subcommand finished executing without errors.
+     *
+     * @param sender The sender who executed the command
+     * @param args The parsed arguments
+     */
+    protected void onAsyncComplete(CommandSender sender, Arguments args) {
+    }
+
+    /**
+     * Called on the main thread when an async subcommand threw an exception.
+     * By default the error is logged and the sender is notified.
+     *
+     * @param sender The sender who executed the command
+     * @param args The parsed arguments
+     * @param error The thrown exception
+     */
+    protected void onAsyncFailure(CommandSender sender, Arguments args, Throwable error) {
+        ConsoleLogger.error(getPlugin(), String.format("Async command '%s' failed", name), error);
+        sender.sendMessage(getPlugin().getMessageConfig().getAsyncCommandFailedMessage());
+    }
+
+    /**
+     * Called on the main thread when a player's cooldown for this subcommand expired while they are online.
+     * By default the cooldown ready message is sent, if one was set.
+     *
+     * @param player The player whose cooldown expired
+     */
+    protected void onCooldownReady(Player player) {
+        if (cooldownReadyMessage != null) {
+            player.sendMessage(cooldownReadyMessage);
+        }
+    }
+
+    /**
+     * Runs a task on the main server thread. Runs it immediately if already on the main thread.
+     * Async subcommands must use this for any Bukkit API call that isn't thread-safe.
+     *
+     * @param task The task to run
+     */
+    protected void runSync(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(getPlugin(), task);
+        }
+    }
+
+    /**
+     * Computes a value on the main server thread.
+     *
+     * @param task The task producing the value
+     * @return A future completed with the value, or exceptionally if the task threw
+     */
+    protected <T> CompletableFuture<T> callSync(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        runSync(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs {@link #execute} after parsing succeeded. Async subcommands are handed to a virtual thread,
+     * everything else runs right away on the calling thread.
+     */
+    void invoke(CommandSender sender, Arguments arguments) {
+        if (!async) {
+            execute(sender, arguments);
+            return;
+        }
+
+        try {
+            getPlugin().getAsyncExecutor().execute(() -> {
+                try {
+                    execute(sender, arguments);
+                    runSync(() -> onAsyncComplete(sender, arguments));
+                } catch (Throwable t) {
+                    runSync(() -> onAsyncFailure(sender, arguments, t));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            onAsyncFailure(sender, arguments, e); // The plugin is shutting down
+        }
+    }
+
+    void bind(CommandManager manager, int cooldownId) {
+        this.manager = manager;
+        this.cooldownId = cooldownId;
+    }
+
+    protected RoidCore getPlugin() {
+        return manager != null ? manager.getRoidPlugin() : RoidCore.getInstance();
+    }
+
     public List<String> onTabComplete(CommandSender sender, String[] args) {
         List<String> suggestions = new ArrayList<>();
 
@@ -120,7 +284,9 @@ public abstract class SubCommand {
 
             // If we are at the current argument position in args, suggest completions
             if (i == args.length - 1) {
-                suggestions.addAll(argument.getSuggestions(sender, args[i]));
+                suggestions.addAll(manager != null
+                    ? manager.getTabCompletionCache().getSuggestions(sender, this, i, argument, args[i])
+                    : argument.getSuggestions(sender, args[i]));
                 break; // Once we find the correct position, stop the loop
             }
         }
@@ -128,6 +294,29 @@ public abstract class SubCommand {
         return suggestions;
     }
 
+    /**
+     * Completes the arguments from a thread other than the main thread.
+     *
+     * @return The suggestions, or null if the argument being completed needs the main thread
+     */
+    List<String> completeOffMainThread(CommandSender sender, String[] args) {
+        if (customTabComplete) return null;
+
+        int index = args.length - 1;
+        if (index >= 0 && index < arguments.size() && !arguments.get(index).isSuggestionThreadSafe()) {
+            return null;
+        }
+        return onTabComplete(sender, args);
+    }
+
+    private static boolean overridesTabComplete(Class<?> type) {
+        try {
+            return type.getMethod("onTabComplete", CommandSender.class, String[].class).getDeclaringClass() != SubCommand.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     public static Builder builder(String name) {
         return new Builder(name);
     }
@@ -145,6 +334,11 @@ public abstract class SubCommand {
         private List<CommandArgument<?>> arguments = new ArrayList<>();
         private Map<String, Boolean> flags = new HashMap<>();
         private Set<String> preprocessAliases = new HashSet<>();
+        private boolean async = false;
+        private String cooldownReadyMessage = null;
+        private boolean persistentCooldown = false;
+        private int rateLimitBurst = 0;
+        private double rateLimitPerSecond = 0;
 
         public Builder(String name) {
             this.name = name;
@@ -204,69 +398,67 @@ public abstract class SubCommand {
             this.preprocessAliases = new HashSet<>(Arrays.asList(aliases));
             return this;
         }
-    }
 
-    public void executeCommand(CommandSender sender, String[] args) {
-        // Validate argument count
-        if (args.length < getMinArgs()) {
-            sender.sendMessage(ChatColor.RED + "Not enough args! Use: " +
-                ChatColor.DARK_RED + getUsage());
-            return;
+        /**
+         * Runs execute on a virtual thread instead of the main thread.
+         * Parsing, permission and cooldown checks still happen synchronously before that.
+         * Use {@link SubCommand#runSync} or {@link SubCommand#callSync} for Bukkit calls.
+         */
+        public Builder setAsync(boolean async) {
+            this.async = async;
+            return this;
         }
 
-        // Create and populate Arguments object
-        Arguments arguments = new Arguments(RoidCore.getInstance());
-
-        StringBuilder infiniteStringBuilder = new StringBuilder();
-        List<String> nonFlagArgsList = new ArrayList<>();
-
-        // First pass: process flags and collect non-flag arguments
-        for (String arg : args) {
-            if (arg.startsWith("-") && this.flags.containsKey(arg)) {
-                arguments.setFlag(arg);
-            } else {
-                nonFlagArgsList.add(arg);
-            }
+        /**
+         * Message sent to a player when their cooldown for this subcommand expires, color codes are translated.
+         */
+        public Builder setCooldownReadyMessage(String cooldownReadyMessage) {
+            this.cooldownReadyMessage = cooldownReadyMessage != null ? tc(cooldownReadyMessage) : null;
+            return this;
         }
 
-        String[] nonFlagArgs = nonFlagArgsList.toArray(new String[0]);
-
-        // Second pass: process regular arguments
-        for (int i = 0; i < this.arguments.size(); i++) {
-            CommandArgument<?> commandArg = this.arguments.get(i);
+        /**
+         * Keeps the cooldown across restarts. Cooldowns are stored by command name in the manager's cooldown log.
+         */
+        public Builder setPersistentCooldown(boolean persistentCooldown) {
+            this.persistentCooldown = persistentCooldown;
+            return this;
+        }
 
-            // Check if we have an argument provided
-            if (i < nonFlagArgs.length) {
-                String arg = nonFlagArgs[i];
+        /**
+         * Per-player token bucket for this subcommand, on top of the manager's admission policy.
+         * Unlike a cooldown, rejected attempts don't send the cooldown message or touch the cooldown.
+         *
+         * @param burst How many uses are allowed at once
+         * @param refillPerSecond How many uses are regained per second
+         */
+        public Builder setRateLimit(int burst, double refillPerSecond) {
+            this.rateLimitBurst = burst;
+            this.rateLimitPerSecond = refillPerSecond;
+            return this;
+        }
+    }
 
-                if (!commandArg.isValid(arg)) {
-                    sender.sendMessage(commandArg.getErrorMessage(arg));
-                    return;
-                }
+    public void executeCommand(CommandSender sender, String[] args) {
+        CompletableFuture<Arguments> parsed = getPlan().parse(getPlugin(), sender, CommandInput.of(args), 0, null);
+        if (!parsed.isDone()) {
+            // Continue on the main thread once asynchronously resolved arguments are ready
+            parsed.thenAccept(arguments -> {
+                    if (arguments != null) invoke(sender, arguments);
+                })
+                .exceptionally(error -> {
+                    ConsoleLogger.error(getPlugin(), String.format("Failed to dispatch command '%s'", name), error);
+                    return null;
+                });
+            return;
+        }
 
-                if (commandArg instanceof InfiniteStringArgument) {
-                    String[] remainingArgs = Arrays.copyOfRange(nonFlagArgs, i, nonFlagArgs.length);
-                    infiniteStringBuilder.append(String.join(" ", remainingArgs));
-                    Object convertedValue = commandArg.convert(infiniteStringBuilder.toString());
-                    arguments.put(commandArg.getName(), convertedValue);
-                } else {
-                    Object convertedValue = commandArg.convert(arg);
-                    arguments.put(commandArg.getName(), convertedValue);
-                }
-            } else {
-                // No argument provided - check for default value
-                if (!commandArg.isRequired()) {
-                    Optional<?> defaultValue = commandArg.getDefaultValue();
-                    defaultValue.ifPresent(o -> arguments.put(commandArg.getName(), o));
-                } else {
-                    // Required argument missing
-                    sender.sendMessage(ChatColor.RED + "Missing required argument: " + commandArg.getName());
-                    return;
-                }
-            }
+        Arguments arguments = parsed.join();
+        if (arguments == null) {
+            return; // An error message has already been sent
         }
 
         // Execute the command with processed arguments
-        execute(sender, arguments);
+        invoke(sender, arguments);
     }
 }
@@ -0,0 +1,175 @@
+package me.timjuice.roidCore.commands;
+
+import me.timjuice.roidCore.commands.arguments.CommandArgument;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, short-lived cache of tab completion results.
+ * <p>
+ * Clients request completions for almost every character typed, so results are cached per sender, subcommand,
+ * argument index and input for the argument's {@link CommandArgument#getSuggestionCacheTtl() TTL}. When the input only
+ * grew, the results cached for a shorter input are filtered instead of asking the argument again, as long as the
+ * argument's suggestions are {@link CommandArgument#isPrefixFiltered() prefix filtered}.
+ * </p>
+ */
+public final class TabCompletionCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder derivedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TabCompletionCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TabCompletionCache(int maxEntries) {
+        // Access order makes this an LRU, evicting the least recently completed input once full
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 256), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the suggestions of an argument, from the cache if possible.
+     *
+     * @param sender The sender completing the command
+     * @param subCommand The subcommand being completed
+     * @param index The index of the argument being completed
+     * @param argument The argument being completed
+     * @param input The input typed for the argument so far
+     * @return The suggestions, never modified by the cache afterwards
+     */
+    public List<String> getSuggestions(CommandSender sender, SubCommand subCommand, int index, CommandArgument<?> argument, String input) {
+        long ttl = argument.getSuggestionCacheTtl();
+        if (ttl <= 0) {
+            return argument.getSuggestions(sender, input);
+        }
+
+        long now = System.currentTimeMillis();
+        Object senderKey = senderKey(sender);
+        String folded = input.toLowerCase(Locale.ROOT);
+
+        synchronized (entries) {
+            Entry entry = entries.get(new Key(senderKey, subCommand, index, folded));
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.suggestions;
+            }
+
+            // Narrow down the result of the longest shorter input still cached
+            if (argument.isPrefixFiltered()) {
+                for (int length = folded.length() - 1; length >= 0; length--) {
+                    Entry shorter = entries.get(new Key(senderKey, subCommand, index, folded.substring(0, length)));
+                    if (shorter == null || shorter.expiresAt <= now) continue;
+
+                    List<String> narrowed = narrow(shorter.suggestions, input);
+                    // Keeps the shorter entry's expiry, the narrowed result is no fresher than its source
+                    entries.put(new Key(senderKey, subCommand, index, folded), new Entry(narrowed, shorter.expiresAt));
+                    derivedHits.increment();
+                    return narrowed;
+                }
+            }
+        }
+
+        // Suppliers may be slow, so they're not called while holding the lock
+        misses.increment();
+        List<String> suggestions = Collections.unmodifiableList(argument.getSuggestions(sender, input));
+        synchronized (entries) {
+            entries.put(new Key(senderKey, subCommand, index, folded), new Entry(suggestions, now + ttl));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Drops every cached result of a sender, e.g. when they quit.
+     */
+    public void invalidate(CommandSender sender) {
+        Object senderKey = senderKey(sender);
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.sender.equals(senderKey));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The number of results served straight from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of results derived by filtering the cached result of a shorter input
+     */
+    public long getDerivedHits() {
+        return derivedHits.sum();
+    }
+
+    /**
+     * @return The number of results the argument had to be asked for
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The share of lookups served without asking the argument, between 0 and 1
+     */
+    public double getHitRate() {
+        long served = getHits() + getDerivedHits();
+        long total = served + getMisses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        derivedHits.reset();
+        misses.reset();
+    }
+
+    private static Object senderKey(CommandSender sender) {
+        return sender instanceof Player player ? player.getUniqueId() : sender.getName();
+    }
+
+    private static List<String> narrow(List<String> suggestions, String input) {
+        int length = input.length();
+        List<String> narrowed = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            if (suggestion.regionMatches(true, 0, input, 0, length)) {
+                narrowed.add(suggestion);
+            }
+        }
+        return Collections.unmodifiableList(narrowed);
+    }
+
+    private record Key(Object sender, SubCommand subCommand, int index, String input) {
+    }
+
+    private record Entry(List<String> suggestions, long expiresAt) {
+    }
+}
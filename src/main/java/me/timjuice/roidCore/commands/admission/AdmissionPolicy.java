@@ -0,0 +1,90 @@
+package me.timjuice.roidCore.commands.admission;
+
+import lombok.Getter;
+
+/**
+ * Immutable limits applied by a {@link CommandAdmission} before a player's command is parsed.
+ * A value of 0 disables the corresponding limit.
+ * <p>
+ * Managers start {@link #UNLIMITED}, limits only apply once a plugin sets a policy, e.g. {@link #RECOMMENDED}
+ * or one built with {@link #builder()}.
+ * </p>
+ */
+@Getter
+public final class AdmissionPolicy {
+    // 256 characters, 64 words and 8 commands at once refilled at 4 per second per player
+    public static final AdmissionPolicy RECOMMENDED = builder().build();
+    public static final AdmissionPolicy UNLIMITED = builder()
+        .setMaxInputLength(0)
+        .setMaxTokens(0)
+        .setPlayerRateLimit(0, 0)
+        .build();
+
+    private final int maxInputLength;
+    private final int maxTokens;
+    private final int playerBurst;
+    private final double playerRefillPerSecond;
+    private final long noticeIntervalMillis;
+
+    private AdmissionPolicy(Builder builder) {
+        this.maxInputLength = builder.maxInputLength;
+        this.maxTokens = builder.maxTokens;
+        this.playerBurst = builder.playerBurst;
+        this.playerRefillPerSecond = builder.playerRefillPerSecond;
+        this.noticeIntervalMillis = builder.noticeIntervalMillis;
+    }
+
+    public boolean hasPlayerRateLimit() {
+        return playerBurst > 0 && playerRefillPerSecond > 0;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxInputLength = 256;
+        private int maxTokens = 64;
+        private int playerBurst = 8;
+        private double playerRefillPerSecond = 4.0;
+        private long noticeIntervalMillis = 1000L;
+
+        /**
+         * Maximum length of the command, without the leading '/'.
+         */
+        public Builder setMaxInputLength(int maxInputLength) {
+            this.maxInputLength = maxInputLength;
+            return this;
+        }
+
+        /**
+         * Maximum amount of space-separated words, including the command itself.
+         */
+        public Builder setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Token bucket shared by all commands of the manager: up to {@code burst} commands at once,
+         * refilled at {@code refillPerSecond}.
+         */
+        public Builder setPlayerRateLimit(int burst, double refillPerSecond) {
+            this.playerBurst = burst;
+            this.playerRefillPerSecond = refillPerSecond;
+            return this;
+        }
+
+        /**
+         * Minimum time between two rejection messages to the same player, rejections in between are silent.
+         */
+        public Builder setNoticeIntervalMillis(long noticeIntervalMillis) {
+            this.noticeIntervalMillis = noticeIntervalMillis;
+            return this;
+        }
+
+        public AdmissionPolicy build() {
+            return new AdmissionPolicy(this);
+        }
+    }
+}
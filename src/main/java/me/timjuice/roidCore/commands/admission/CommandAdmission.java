@@ -0,0 +1,227 @@
+package me.timjuice.roidCore.commands.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admission control in front of a command manager's entry points.
+ * <p>
+ * Raw input is checked against length and word limits before it is tokenized, and every dispatch draws
+ * from a per-player token bucket and, if the subcommand has one, a per-subcommand bucket.
+ * Rejections are counted per player, and the player is notified at most once per notice interval.
+ * </p>
+ * <p>
+ * Must only be used from the main server thread. State is released when the player quits.
+ * </p>
+ */
+public final class CommandAdmission {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    @Getter
+    @Setter
+    private volatile AdmissionPolicy policy;
+    private final Map<UUID, PlayerState> players = new HashMap<>();
+
+    public CommandAdmission(AdmissionPolicy policy) {
+        this.policy = policy;
+    }
+
+    public enum Result {
+        ADMITTED,
+        INPUT_TOO_LONG,
+        TOO_MANY_TOKENS,
+        RATE_LIMITED;
+
+        public boolean isAdmitted() {
+            return this == ADMITTED;
+        }
+    }
+
+    /**
+     * Checks the raw input against the length and word limits, without tokenizing it.
+     *
+     * @param source The string containing the command
+     * @param from Index of the first character of the command, e.g. 1 to skip a leading '/'
+     * @return The verdict
+     */
+    public Result checkInput(String source, int from) {
+        AdmissionPolicy current = policy;
+        if (current.getMaxInputLength() > 0 && source.length() - from > current.getMaxInputLength()) {
+            return Result.INPUT_TOO_LONG;
+        }
+        if (current.getMaxTokens() > 0 && countTokens(source, from, current.getMaxTokens() + 1) > current.getMaxTokens()) {
+            return Result.TOO_MANY_TOKENS;
+        }
+        return Result.ADMITTED;
+    }
+
+    /**
+     * Checks arguments that were already split by the server against the length and word limits.
+     *
+     * @param label The command label
+     * @param args The arguments
+     * @return The verdict
+     */
+    public Result checkInput(String label, String[] args) {
+        AdmissionPolicy current = policy;
+        if (current.getMaxTokens() > 0 && args.length + 1 > current.getMaxTokens()) {
+            return Result.TOO_MANY_TOKENS;
+        }
+        if (current.getMaxInputLength() > 0) {
+            int length = label.length();
+            for (String arg : args) {
+                length += arg.length() + 1;
+                if (length > current.getMaxInputLength()) return Result.INPUT_TOO_LONG;
+            }
+        }
+        return Result.ADMITTED;
+    }
+
+    /**
+     * Checks whether the player's bucket still has a token, without taking one.
+     * Lets entry points drop input before tokenizing it.
+     */
+    public Result peek(UUID uniqueId, long nowNanos) {
+        AdmissionPolicy current = policy;
+        if (!current.hasPlayerRateLimit()) return Result.ADMITTED;
+
+        PlayerState state = players.get(uniqueId);
+        if (state == null) return Result.ADMITTED;
+        state.refill(current, nowNanos);
+        return state.tokens >= 1.0 ? Result.ADMITTED : Result.RATE_LIMITED;
+    }
+
+    /**
+     * Takes a token from the player's bucket and from the subcommand's bucket.
+     * Nothing is taken unless both have one.
+     *
+     * @param uniqueId The player
+     * @param commandId The subcommand's id within the manager
+     * @param commandBurst The subcommand's bucket size, 0 if it has no rate limit
+     * @param commandRefillPerSecond The subcommand's refill rate
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @return The verdict
+     */
+    public Result acquire(UUID uniqueId, int commandId, int commandBurst, double commandRefillPerSecond, long nowNanos) {
+        AdmissionPolicy current = policy;
+        boolean playerLimited = current.hasPlayerRateLimit();
+        boolean commandLimited = commandId >= 0 && commandBurst > 0 && commandRefillPerSecond > 0;
+        if (!playerLimited && !commandLimited) return Result.ADMITTED;
+
+        PlayerState state = players.computeIfAbsent(uniqueId, k -> new PlayerState(current, nowNanos));
+        if (playerLimited) {
+            state.refill(current, nowNanos);
+            if (state.tokens < 1.0) return Result.RATE_LIMITED;
+        }
+        if (commandLimited) {
+            double tokens = state.refillCommand(commandId, commandBurst, commandRefillPerSecond, nowNanos);
+            if (tokens < 1.0) return Result.RATE_LIMITED;
+            state.commandTokens[commandId] = tokens - 1.0;
+        }
+        if (playerLimited) state.tokens -= 1.0;
+        return Result.ADMITTED;
+    }
+
+    /**
+     * Counts a rejection.
+     *
+     * @param uniqueId The player
+     * @param nowMillis The current time in milliseconds
+     * @return true if the player should be told, false while the notice interval hasn't passed
+     */
+    public boolean reject(UUID uniqueId, long nowMillis) {
+        PlayerState state = players.computeIfAbsent(uniqueId, k -> new PlayerState(policy, System.nanoTime()));
+        state.rejections++;
+        if (nowMillis - state.lastNoticeMillis < policy.getNoticeIntervalMillis()) return false;
+        state.lastNoticeMillis = nowMillis;
+        return true;
+    }
+
+    /**
+     * @return The amount of rejected commands of a player since they joined
+     */
+    public long getRejections(UUID uniqueId) {
+        PlayerState state = players.get(uniqueId);
+        return state != null ? state.rejections : 0L;
+    }
+
+    /**
+     * @return A snapshot of the rejection counters of every player that had a command rejected
+     */
+    public Map<UUID, Long> getRejectionCounts() {
+        Map<UUID, Long> counts = new HashMap<>();
+        players.forEach((uniqueId, state) -> {
+            if (state.rejections > 0) counts.put(uniqueId, state.rejections);
+        });
+        return counts;
+    }
+
+    public void release(UUID uniqueId) {
+        players.remove(uniqueId);
+    }
+
+    /**
+     * Counts space-separated words, stopping as soon as the limit is reached.
+     */
+    static int countTokens(String source, int from, int limit) {
+        int count = 0;
+        boolean inToken = false;
+        for (int i = from; i < source.length(); i++) {
+            if (source.charAt(i) == ' ') {
+                inToken = false;
+            } else if (!inToken) {
+                inToken = true;
+                if (++count >= limit) return count;
+            }
+        }
+        return count;
+    }
+
+    private static final class PlayerState {
+        private double tokens;
+        private long refilledAt;
+        private double[] commandTokens;
+        private long[] commandRefilledAt;
+        private long rejections;
+        private long lastNoticeMillis = Long.MIN_VALUE / 2;
+
+        private PlayerState(AdmissionPolicy policy, long nowNanos) {
+            this.tokens = policy.getPlayerBurst();
+            this.refilledAt = nowNanos;
+        }
+
+        private void refill(AdmissionPolicy policy, long nowNanos) {
+            double elapsed = (nowNanos - refilledAt) / NANOS_PER_SECOND;
+            tokens = Math.min(policy.getPlayerBurst(), tokens + elapsed * policy.getPlayerRefillPerSecond());
+            refilledAt = nowNanos;
+        }
+
+        /**
+         * @return The subcommand bucket's tokens after refilling, not yet stored
+         */
+        private double refillCommand(int commandId, int burst, double refillPerSecond, long nowNanos) {
+            if (commandTokens == null || commandId >= commandTokens.length) {
+                int length = Math.max(commandId + 1, commandTokens == null ? 4 : commandTokens.length * 2);
+                int previous = commandTokens == null ? 0 : commandTokens.length;
+                commandTokens = commandTokens == null ? new double[length] : Arrays.copyOf(commandTokens, length);
+                commandRefilledAt = commandRefilledAt == null ? new long[length] : Arrays.copyOf(commandRefilledAt, length);
+                // New buckets start full
+                Arrays.fill(commandTokens, previous, length, Double.NaN);
+            }
+            if (Double.isNaN(commandTokens[commandId])) {
+                commandTokens[commandId] = burst;
+                commandRefilledAt[commandId] = nowNanos;
+            }
+            double elapsed = (nowNanos - commandRefilledAt[commandId]) / NANOS_PER_SECOND;
+            double refilled = Math.min(burst, commandTokens[commandId] + elapsed * refillPerSecond);
+            commandTokens[commandId] = refilled;
+            commandRefilledAt[commandId] = nowNanos;
+            return refilled;
+        }
+    }
+}
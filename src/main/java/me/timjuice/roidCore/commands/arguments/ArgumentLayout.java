@@ -0,0 +1,71 @@
+package me.timjuice.roidCore.commands.arguments;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable mapping of argument and flag names to slot indices, resolved once when a command is registered.
+ * Every {@link Arguments} container of that command shares the same layout.
+ */
+public final class ArgumentLayout {
+    public static final ArgumentLayout EMPTY = new ArgumentLayout(new String[0], new String[0]);
+
+    private final String[] argumentNames;
+    private final String[] flagNames;
+    private final Map<String, Integer> argumentSlots;
+    private final Map<String, Integer> flagSlots;
+
+    private ArgumentLayout(String[] argumentNames, String[] flagNames) {
+        this.argumentNames = argumentNames;
+        this.flagNames = flagNames;
+        this.argumentSlots = indexOf(argumentNames);
+        this.flagSlots = indexOf(flagNames);
+    }
+
+    public static ArgumentLayout of(String[] argumentNames, String[] flagNames) {
+        if (argumentNames.length == 0 && flagNames.length == 0) return EMPTY;
+        return new ArgumentLayout(argumentNames.clone(), flagNames.clone());
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        if (names.length == 0) return Collections.emptyMap();
+        Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            slots.putIfAbsent(names[i], i);
+        }
+        return slots;
+    }
+
+    /**
+     * @return The slot of the argument, or -1 if the layout has no argument with that name
+     */
+    public int argumentSlot(String name) {
+        Integer slot = argumentSlots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @return The slot of the flag, or -1 if the layout has no flag with that name
+     */
+    public int flagSlot(String name) {
+        Integer slot = flagSlots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    public int argumentCount() {
+        return argumentNames.length;
+    }
+
+    public int flagCount() {
+        return flagNames.length;
+    }
+
+    public String argumentName(int slot) {
+        return argumentNames[slot];
+    }
+
+    public String flagName(int slot) {
+        return flagNames[slot];
+    }
+}
@@ -0,0 +1,42 @@
+package me.timjuice.roidCore.commands.arguments;
+
+/**
+ * The outcome of parsing a single argument: either the converted value or the error message to show.
+ *
+ * @param <T> The type of the converted value
+ */
+public final class ArgumentResult<T> {
+    private final T value;
+    private final String error;
+
+    private ArgumentResult(T value, String error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> ArgumentResult<T> success(T value) {
+        return new ArgumentResult<>(value, null);
+    }
+
+    public static <T> ArgumentResult<T> error(String message) {
+        return new ArgumentResult<>(null, message);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return The converted value, or null if parsing failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return The error message, or null if parsing succeeded
+     */
+    public String getError() {
+        return error;
+    }
+}
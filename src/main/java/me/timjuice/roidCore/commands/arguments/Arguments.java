@@ -3,23 +3,58 @@ package me.timjuice.roidCore.commands.arguments;
 import me.timjuice.roidCore.utils.ConsoleLogger;
 import org.bukkit.plugin.Plugin;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Optional;
 
 /**
  * This class is used to store and retrieve command arguments.
+ * <p>
+ * Values live in slots resolved from the command's {@link ArgumentLayout} when it was registered.
+ * Primitive values are kept unboxed in a side array and flags in a bitset.
+ * Names that aren't part of the layout still work through a small fallback map.
+ * </p>
  */
 public class Arguments {
+    private static final byte ABSENT = 0;
+    private static final byte OBJECT = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte SHORT = 6;
 
     /**
-     * The map of the arguments.
+     * The slot layout shared by every invocation of the command.
      */
-    private final HashMap<String, Object> arguments;
+    private final ArgumentLayout layout;
 
     /**
-     * The map of the flags.
+     * Object values by slot.
      */
-    private final HashMap<String, Boolean> flags;
+    private final Object[] values;
+
+    /**
+     * Raw bits of primitive values by slot.
+     */
+    private final long[] primitives;
+
+    /**
+     * What each slot currently holds.
+     */
+    private final byte[] kinds;
+
+    /**
+     * The bitset of set flags, indexed by flag slot.
+     */
+    private final long[] flagBits;
+
+    /**
+     * Arguments and flags whose names aren't part of the layout, created on first use.
+     */
+    private HashMap<String, Object> extraArguments;
+    private HashSet<String> extraFlags;
 
     /**
      * The plugin instance for logging purposes.
@@ -31,9 +66,22 @@ public class Arguments {
      * @param plugin The plugin instance used for logging.
      */
     public Arguments(Plugin plugin) {
-        this.arguments = new HashMap<>();
-        this.flags = new HashMap<>();
+        this(plugin, ArgumentLayout.EMPTY);
+    }
+
+    /**
+     * Constructor of the class.
+     * @param plugin The plugin instance used for logging.
+     * @param layout The slot layout of the command.
+     */
+    public Arguments(Plugin plugin, ArgumentLayout layout) {
         this.plugin = plugin;
+        this.layout = layout;
+        int count = layout.argumentCount();
+        this.values = new Object[count];
+        this.primitives = new long[count];
+        this.kinds = new byte[count];
+        this.flagBits = new long[(layout.flagCount() + 63) >>> 6];
     }
 
     /**
@@ -42,7 +90,49 @@ public class Arguments {
      * @param value The value of the argument.
      */
     public void put(String key, Object value) {
-        arguments.put(key, value);
+        int slot = layout.argumentSlot(key);
+        if (slot != -1) {
+            put(slot, value);
+            return;
+        }
+        if (extraArguments == null) extraArguments = new HashMap<>();
+        extraArguments.put(key, value);
+    }
+
+    /**
+     * Put an argument into a slot of the layout.
+     * @param slot The slot of the argument.
+     * @param value The value of the argument.
+     */
+    public void put(int slot, Object value) {
+        values[slot] = value;
+        kinds[slot] = OBJECT;
+    }
+
+    public void putInt(int slot, int value) {
+        putPrimitive(slot, INT, value);
+    }
+
+    public void putShort(int slot, short value) {
+        putPrimitive(slot, SHORT, value);
+    }
+
+    public void putLong(int slot, long value) {
+        putPrimitive(slot, LONG, value);
+    }
+
+    public void putDouble(int slot, double value) {
+        putPrimitive(slot, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    public void putBoolean(int slot, boolean value) {
+        putPrimitive(slot, BOOLEAN, value ? 1 : 0);
+    }
+
+    private void putPrimitive(int slot, byte kind, long bits) {
+        values[slot] = null;
+        primitives[slot] = bits;
+        kinds[slot] = kind;
     }
 
     /**
@@ -54,17 +144,139 @@ public class Arguments {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
+        int slot = layout.argumentSlot(key);
+        if (slot == -1) {
+            return extraArguments != null ? (T) extraArguments.get(key) : null;
+        }
         try {
-            if (!arguments.containsKey(key)) {
-                return null;
-            }
-            return (T) arguments.get(key);
+            return (T) get(slot);
         } catch (Exception e) {
             ConsoleLogger.error(plugin, "Error retrieving argument '" + key + "': " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Get an argument from a slot, boxing primitive values on demand.
+     *
+     * @param slot The slot of the argument.
+     * @return The argument value or null if it doesn't exist.
+     */
+    public Object get(int slot) {
+        long bits = primitives[slot];
+        return switch (kinds[slot]) {
+            case OBJECT -> values[slot];
+            case INT -> (int) bits;
+            case SHORT -> (short) bits;
+            case LONG -> bits;
+            case DOUBLE -> Double.longBitsToDouble(bits);
+            case BOOLEAN -> bits != 0;
+            default -> null;
+        };
+    }
+
+    /**
+     * Get an integer argument without boxing.
+     *
+     * @param key The key of the argument.
+     * @param defaultValue The value returned if the argument doesn't exist or isn't a number.
+     * @return The argument value.
+     */
+    public int getInt(String key, int defaultValue) {
+        int slot = layout.argumentSlot(key);
+        if (slot == -1 || kinds[slot] == ABSENT) return extra(key) instanceof Number number ? number.intValue() : defaultValue;
+        return switch (kinds[slot]) {
+            case INT, SHORT, LONG -> (int) primitives[slot];
+            case DOUBLE -> (int) Double.longBitsToDouble(primitives[slot]);
+            default -> numberIn(key, slot) instanceof Number number ? number.intValue() : defaultValue;
+        };
+    }
+
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    /**
+     * Get a long argument without boxing.
+     *
+     * @param key The key of the argument.
+     * @param defaultValue The value returned if the argument doesn't exist or isn't a number.
+     * @return The argument value.
+     */
+    public long getLong(String key, long defaultValue) {
+        int slot = layout.argumentSlot(key);
+        if (slot == -1 || kinds[slot] == ABSENT) return extra(key) instanceof Number number ? number.longValue() : defaultValue;
+        return switch (kinds[slot]) {
+            case INT, SHORT, LONG -> primitives[slot];
+            case DOUBLE -> (long) Double.longBitsToDouble(primitives[slot]);
+            default -> numberIn(key, slot) instanceof Number number ? number.longValue() : defaultValue;
+        };
+    }
+
+    public long getLong(String key) {
+        return getLong(key, 0L);
+    }
+
+    /**
+     * Get a double argument without boxing.
+     *
+     * @param key The key of the argument.
+     * @param defaultValue The value returned if the argument doesn't exist or isn't a number.
+     * @return The argument value.
+     */
+    public double getDouble(String key, double defaultValue) {
+        int slot = layout.argumentSlot(key);
+        if (slot == -1 || kinds[slot] == ABSENT) return extra(key) instanceof Number number ? number.doubleValue() : defaultValue;
+        return switch (kinds[slot]) {
+            case INT, SHORT, LONG -> primitives[slot];
+            case DOUBLE -> Double.longBitsToDouble(primitives[slot]);
+            default -> numberIn(key, slot) instanceof Number number ? number.doubleValue() : defaultValue;
+        };
+    }
+
+    public double getDouble(String key) {
+        return getDouble(key, 0.0);
+    }
+
+    /**
+     * Get a boolean argument without boxing.
+     *
+     * @param key The key of the argument.
+     * @param defaultValue The value returned if the argument doesn't exist or isn't a boolean.
+     * @return The argument value.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        int slot = layout.argumentSlot(key);
+        if (slot == -1 || kinds[slot] == ABSENT) {
+            return extra(key) instanceof Boolean bool ? bool : defaultValue;
+        }
+        if (kinds[slot] == BOOLEAN) return primitives[slot] != 0;
+        Object value = get(slot);
+        if (value instanceof Boolean bool) return bool;
+        if (value != null) ConsoleLogger.error(plugin, "Argument '" + key + "' is not a boolean: " + value);
+        return defaultValue;
+    }
+
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    /**
+     * Get the value of a slot that doesn't hold a number primitive, logging an error if it isn't a number.
+     *
+     * @return The number, or null if the slot holds null or something else
+     */
+    private Number numberIn(String key, int slot) {
+        Object value = get(slot);
+        if (value == null || value instanceof Number) return (Number) value;
+        ConsoleLogger.error(plugin, "Argument '" + key + "' is not a number: " + value);
+        return null;
+    }
+
+    private Object extra(String key) {
+        return extraArguments != null ? extraArguments.get(key) : null;
+    }
+
     /**
      * Get an argument from the map as an Optional.
      *
@@ -72,9 +284,8 @@ public class Arguments {
      * @param <T> The type of the argument.
      * @return An Optional containing the argument value if it exists, or an empty Optional.
      */
-    @SuppressWarnings("unchecked")
     public <T> Optional<T> getOptional(String key) {
-        return Optional.ofNullable((T) arguments.get(key));
+        return Optional.ofNullable(get(key));
     }
 
     /**
@@ -84,7 +295,9 @@ public class Arguments {
      * @return True if the argument exists, false otherwise.
      */
     public boolean has(String key) {
-        return arguments.containsKey(key);
+        int slot = layout.argumentSlot(key);
+        if (slot != -1 && kinds[slot] != ABSENT) return true;
+        return extraArguments != null && extraArguments.containsKey(key);
     }
 
     /**
@@ -93,14 +306,20 @@ public class Arguments {
      * @return amount of provided arguments
      */
     public int getAmount() {
-        return arguments.size();
+        int amount = extraArguments != null ? extraArguments.size() : 0;
+        for (byte kind : kinds) {
+            if (kind != ABSENT) amount++;
+        }
+        return amount;
     }
 
     /**
      * Clear all arguments.
      */
     public void clear() {
-        arguments.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(kinds, ABSENT);
+        if (extraArguments != null) extraArguments.clear();
     }
 
     /**
@@ -109,7 +328,22 @@ public class Arguments {
      * @param key   The key of the flag.
      */
     public void setFlag(String key) {
-        flags.put(key, true);
+        int slot = layout.flagSlot(key);
+        if (slot != -1) {
+            setFlag(slot);
+            return;
+        }
+        if (extraFlags == null) extraFlags = new HashSet<>();
+        extraFlags.add(key);
+    }
+
+    /**
+     * Set a flag by its slot in the layout.
+     *
+     * @param slot The slot of the flag.
+     */
+    public void setFlag(int slot) {
+        flagBits[slot >>> 6] |= 1L << slot;
     }
 
     /**
@@ -119,7 +353,7 @@ public class Arguments {
      * @return The flag value or false if it doesn't exist.
      */
     public boolean getFlag(String key) {
-        return flags.getOrDefault(key, false); // Return false if flag doesn't exist
+        return hasFlag(key); // Only set flags are stored, so presence is the value
     }
 
     /**
@@ -129,13 +363,16 @@ public class Arguments {
      * @return True if the flag exists, false otherwise.
      */
     public boolean hasFlag(String key) {
-        return flags.containsKey(key);
+        int slot = layout.flagSlot(key);
+        if (slot != -1 && (flagBits[slot >>> 6] & (1L << slot)) != 0) return true;
+        return extraFlags != null && extraFlags.contains(key);
     }
 
     /**
      * Clear all flags.
      */
     public void clearFlags() {
-        flags.clear();
+        Arrays.fill(flagBits, 0L);
+        if (extraFlags != null) extraFlags.clear();
     }
 }
@@ -1,13 +1,12 @@
 package me.timjuice.roidCore.commands.arguments;
 
+import me.timjuice.roidCore.utils.PrefixIndex;
 import org.bukkit.command.CommandSender;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class BooleanArgument extends CommandArgument<Boolean> {
+    private static final PrefixIndex<String> OPTIONS = PrefixIndex.of(List.of("true", "false", "yes", "no"));
 
     public BooleanArgument(CommandArgumentBuilder<Boolean> builder) {
         super(builder);
@@ -22,17 +21,54 @@ public class BooleanArgument extends CommandArgument<Boolean> {
         };
     }
 
+    // Validation and conversion both go through parseBoolean, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        // Check if input matches true/false or yes/no (case insensitive)
-        return input.equalsIgnoreCase("true") || input.equalsIgnoreCase("false") ||
-                input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("no");
+        try {
+            parseBoolean(input);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     @Override
     public Boolean convert(String input) {
-        // Return true for "true" or "yes", and false for "false" or "no"
-        return input.equalsIgnoreCase("true") || input.equalsIgnoreCase("yes");
+        return parseBoolean(input);
+    }
+
+    @Override
+    protected final ArgumentResult<Boolean> parseValue(String input) {
+        try {
+            return ArgumentResult.success(parseBoolean(input));
+        } catch (IllegalArgumentException e) {
+            return ArgumentResult.error(getErrorMessage(input));
+        }
+    }
+
+    /**
+     * Parses the input. Every other way of validating or converting this argument goes through here.
+     *
+     * @param input The input string to parse
+     * @return true for "true" or "yes", false for "false" or "no", ignoring case
+     * @throws IllegalArgumentException If the input is none of these
+     */
+    protected boolean parseBoolean(String input) {
+        if (input.equalsIgnoreCase("true") || input.equalsIgnoreCase("yes")) return true;
+        if (input.equalsIgnoreCase("false") || input.equalsIgnoreCase("no")) return false;
+        throw new IllegalArgumentException("Not a boolean: " + input);
+    }
+
+    @Override
+    public final String parseInto(String input, Arguments target, int slot) {
+        if (convertsThroughOverrides()) return super.parseInto(input, target, slot); // Boxed, but honors the overrides
+        if (!matchesValidOptions(input)) return getErrorMessage(input);
+        try {
+            target.putBoolean(slot, parseBoolean(input)); // Stored unboxed
+            return null;
+        } catch (IllegalArgumentException e) {
+            return getErrorMessage(input);
+        }
     }
 
     @Override
@@ -43,8 +79,12 @@ public class BooleanArgument extends CommandArgument<Boolean> {
     @Override
     public List<String> getCustomSuggestions(CommandSender sender, String currentInput) {
         // Suggest "true", "false", "yes", and "no" that match the current input
-        return Stream.of("true", "false", "yes", "no")
-                .filter(option -> option.toLowerCase().startsWith(currentInput.toLowerCase()))
-                .collect(Collectors.toList());
+        return OPTIONS.complete(currentInput);
+    }
+
+    // A fixed list, safe on any thread
+    @Override
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return true;
     }
 }
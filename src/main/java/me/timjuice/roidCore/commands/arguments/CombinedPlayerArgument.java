@@ -1,13 +1,13 @@
 package me.timjuice.roidCore.commands.arguments;
 
 import me.timjuice.roidCore.model.RoidPlayer;
-import org.bukkit.Bukkit;
+import me.timjuice.roidCore.players.OfflinePlayerResolver;
+import me.timjuice.roidCore.players.OnlinePlayerIndex;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static me.timjuice.roidCore.utils.FormatUtil.tc;
 
@@ -25,16 +25,42 @@ public class CombinedPlayerArgument extends CommandArgument<RoidPlayer> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(input);
-        return offlinePlayer != null && offlinePlayer.hasPlayedBefore();
+        return parseValue(input).isSuccess();
     }
 
+    /**
+     * Converts without blocking, so only players that are online or in the {@link me.timjuice.roidCore.players.PlayerNameIndex}
+     * are found. Commands resolve every other name through {@link #resolveAsync(String)}.
+     *
+     * @return The player, or null if the name isn't known yet
+     */
     @Override
     public RoidPlayer convert(String input) {
-        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(input);
-        return new RoidPlayer(offlinePlayer.getUniqueId());
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<RoidPlayer> parseValue(String input) {
+        // The main thread path never does a profile lookup, unknown names are only resolved asynchronously
+        OfflinePlayer offlinePlayer = OfflinePlayerResolver.resolveKnown(input);
+        if (offlinePlayer == null) return ArgumentResult.error(getErrorMessage(input));
+        return ArgumentResult.success(new RoidPlayer(offlinePlayer.getUniqueId()));
+    }
+
+    @Override
+    public boolean isResolvedAsync() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<ArgumentResult<RoidPlayer>> resolveAsync(String input) {
+        return OfflinePlayerResolver.resolve(input)
+                .thenApply(offlinePlayer -> offlinePlayer != null
+                        ? ArgumentResult.success(new RoidPlayer(offlinePlayer.getUniqueId()))
+                        : ArgumentResult.error(getErrorMessage(input)));
     }
 
     @Override
@@ -44,9 +70,12 @@ public class CombinedPlayerArgument extends CommandArgument<RoidPlayer> {
 
     @Override
     public List<String> getCustomSuggestions(CommandSender sender, String currentInput) {
-        return new ArrayList<>(Bukkit.getOnlinePlayers().stream()
-                .map(Player::getName)
-                .filter(name -> name.toLowerCase().startsWith(currentInput.toLowerCase()))
-                .toList());
+        return OnlinePlayerIndex.getInstance().suggest(sender, currentInput);
+    }
+
+    // The online player index can be read from any thread
+    @Override
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return true;
     }
 }
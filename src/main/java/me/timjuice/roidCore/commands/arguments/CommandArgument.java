@@ -1,13 +1,16 @@
 package me.timjuice.roidCore.commands.arguments;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.command.CommandSender;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 import static me.timjuice.roidCore.utils.FormatUtil.tc;
 
@@ -20,13 +23,38 @@ import static me.timjuice.roidCore.utils.FormatUtil.tc;
  */
 @Getter
 public abstract class CommandArgument<T> {
+    // The classes that last overrode the suggestion hooks, so an opt-in isn't inherited by suggestions overridden later
+    private static final ClassValue<Class<?>> CUSTOM_SUGGESTIONS_DECLARED_BY = declaredBy("getCustomSuggestions", CommandSender.class, String.class);
+    private static final ClassValue<Class<?>> THREAD_SAFETY_DECLARED_BY = declaredBy("areCustomSuggestionsThreadSafe");
+    // Whether isTypeValid or convert is overridden below the class parsing natively in parseValue
+    private static final ClassValue<Boolean> CONVERTS_THROUGH_OVERRIDES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Class<?> parser = declaringClass(type, "parseValue", String.class);
+            return isBelow(declaringClass(type, "isTypeValid", String.class), parser)
+                || isBelow(declaringClass(type, "convert", String.class), parser);
+        }
+    };
+
     private final String name;
     private final boolean required;
     protected final Supplier<List<String>> validOptionsSupplier;
     protected final Supplier<List<String>> suggestedOptionsSupplier;
+    // Fixed and versioned options are compiled into hash sets and a prefix index, dynamic ones are read on every use
+    @Getter(AccessLevel.NONE)
+    private final OptionsSource validOptions;
+    @Getter(AccessLevel.NONE)
+    private final OptionsSource suggestedOptions;
+    // Whether valid options match the input regardless of case
+    private final boolean caseInsensitiveOptions;
     private final T defaultValue;
     private final boolean hasDefaultValue;
     private final String permission;
+    // How long tab completion results are cached, 0 to ask for suggestions on every keystroke
+    private final long suggestionCacheTtl;
+    // Declared on the builder, null to derive it from the option sources
+    @Getter(AccessLevel.NONE)
+    private final Boolean suggestionsThreadSafe;
 
     /**
      * Protected constructor for creating a new CommandArgument.
@@ -37,11 +65,16 @@ public abstract class CommandArgument<T> {
     protected CommandArgument(CommandArgumentBuilder<T> builder) {
         this.name = builder.name;
         this.required = builder.required;
-        this.validOptionsSupplier = builder.validOptionsSupplier;
-        this.suggestedOptionsSupplier = builder.suggestedOptionsSupplier;
+        this.validOptions = builder.validOptions;
+        this.suggestedOptions = builder.suggestedOptions;
+        this.validOptionsSupplier = () -> validOptions.snapshot().getOptions();
+        this.suggestedOptionsSupplier = () -> suggestedOptions.snapshot().getOptions();
+        this.caseInsensitiveOptions = builder.caseInsensitiveOptions;
         this.defaultValue = builder.defaultValue;
         this.hasDefaultValue = builder.hasDefaultValue;
         this.permission = builder.permission;
+        this.suggestionCacheTtl = builder.suggestionCacheTtl;
+        this.suggestionsThreadSafe = builder.suggestionsThreadSafe;
 
         // Validate default value if one is set
         if (hasDefaultValue) {
@@ -68,7 +101,16 @@ public abstract class CommandArgument<T> {
      * @return A list of valid options, or an empty list if no valid options are defined
      */
     protected List<String> getValidOptions() {
-        return validOptionsSupplier != null ? validOptionsSupplier.get() : Collections.emptyList();
+        return validOptions.snapshot().getOptions();
+    }
+
+    /**
+     * Retrieves the valid options along with their sets and joined form, shared until the options change.
+     *
+     * @return The current valid options
+     */
+    protected OptionsSource.Snapshot getValidOptionsSnapshot() {
+        return validOptions.snapshot();
     }
 
     /**
@@ -77,7 +119,7 @@ public abstract class CommandArgument<T> {
      * @return A list of suggested options, or an empty list if no suggestions are defined
      */
     protected List<String> getSuggestedOptions() {
-        return suggestedOptionsSupplier != null ? suggestedOptionsSupplier.get() : Collections.emptyList();
+        return suggestedOptions.snapshot().getOptions();
     }
 
     /**
@@ -89,11 +131,14 @@ public abstract class CommandArgument<T> {
     public abstract static class CommandArgumentBuilder<T> {
         private final String name;
         private boolean required = true;
-        private Supplier<List<String>> validOptionsSupplier = Collections::emptyList;
-        private Supplier<List<String>> suggestedOptionsSupplier = Collections::emptyList;
+        private OptionsSource validOptions = OptionsSource.none();
+        private OptionsSource suggestedOptions = OptionsSource.none();
+        private boolean caseInsensitiveOptions = false;
         private T defaultValue;
         private boolean hasDefaultValue = false;
         private String permission = "";
+        private long suggestionCacheTtl = 0;
+        private Boolean suggestionsThreadSafe = null;
 
         /**
          * Creates a new builder for a CommandArgument with the specified name.
@@ -118,12 +163,40 @@ public abstract class CommandArgument<T> {
         /**
          * Sets the supplier for valid options for this argument.
          * Valid options are strictly enforced during validation.
+         * The supplier is called on every use, prefer a fixed list or versioned options where possible.
          *
          * @param optionsSupplier A supplier that provides a list of valid options
          * @return this builder for method chaining
          */
         public CommandArgumentBuilder<T> setValidOptions(Supplier<List<String>> optionsSupplier) {
-            this.validOptionsSupplier = optionsSupplier;
+            return setValidOptions(OptionsSource.dynamic(optionsSupplier));
+        }
+
+        /**
+         * Sets a fixed list of valid options for this argument.
+         * The list is copied and indexed once, so validation and tab completion don't have to scan it.
+         *
+         * @param options The valid options
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setValidOptions(List<String> options) {
+            return setValidOptions(OptionsSource.fixed(options));
+        }
+
+        /**
+         * Sets valid options that only change together with a version.
+         * The options are indexed again only after the version changed.
+         *
+         * @param optionsSupplier A supplier that provides a list of valid options
+         * @param version A supplier of the current version of the options
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setValidOptions(Supplier<List<String>> optionsSupplier, LongSupplier version) {
+            return setValidOptions(OptionsSource.versioned(optionsSupplier, version));
+        }
+
+        public CommandArgumentBuilder<T> setValidOptions(OptionsSource options) {
+            this.validOptions = options;
             return this;
         }
 
@@ -135,7 +208,44 @@ public abstract class CommandArgument<T> {
          * @return this builder for method chaining
          */
         public CommandArgumentBuilder<T> setSuggestedOptions(Supplier<List<String>> optionsSupplier) {
-            this.suggestedOptionsSupplier = optionsSupplier;
+            return setSuggestedOptions(OptionsSource.dynamic(optionsSupplier));
+        }
+
+        /**
+         * Sets a fixed list of suggested options for this argument.
+         * The list is copied and indexed once, so tab completion doesn't have to scan it on every keystroke.
+         *
+         * @param options The suggested options
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setSuggestedOptions(List<String> options) {
+            return setSuggestedOptions(OptionsSource.fixed(options));
+        }
+
+        /**
+         * Sets suggested options that only change together with a version.
+         *
+         * @param optionsSupplier A supplier that provides a list of suggested options
+         * @param version A supplier of the current version of the options
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setSuggestedOptions(Supplier<List<String>> optionsSupplier, LongSupplier version) {
+            return setSuggestedOptions(OptionsSource.versioned(optionsSupplier, version));
+        }
+
+        public CommandArgumentBuilder<T> setSuggestedOptions(OptionsSource options) {
+            this.suggestedOptions = options;
+            return this;
+        }
+
+        /**
+         * Sets whether the input matches valid options regardless of case.
+         *
+         * @param caseInsensitive true to ignore case when validating
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setCaseInsensitiveOptions(boolean caseInsensitive) {
+            this.caseInsensitiveOptions = caseInsensitive;
             return this;
         }
 
@@ -153,6 +263,30 @@ public abstract class CommandArgument<T> {
             return this;
         }
 
+        /**
+         * Caches the tab completion results of this argument per player and input for a short time.
+         * Useful when the options supplier is expensive, e.g. when it queries warps or claims.
+         *
+         * @param ttlMillis How long results stay cached in milliseconds, 0 to disable caching
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setSuggestionCacheTtl(long ttlMillis) {
+            this.suggestionCacheTtl = Math.max(ttlMillis, 0);
+            return this;
+        }
+
+        /**
+         * Declares whether the options suppliers of this argument may be called off the main thread.
+         * Arguments with options suppliers are completed on the main thread unless declared thread-safe.
+         *
+         * @param threadSafe true if suggestions can be computed on any thread
+         * @return this builder for method chaining
+         */
+        public CommandArgumentBuilder<T> setSuggestionsThreadSafe(boolean threadSafe) {
+            this.suggestionsThreadSafe = threadSafe;
+            return this;
+        }
+
         /**
          * Builds a new CommandArgument instance with the configured properties.
          *
@@ -169,11 +303,104 @@ public abstract class CommandArgument<T> {
      * @return true if the input is valid, false otherwise
      */
     public boolean isValid(String input) {
-        List<String> validOptions = getValidOptions();
-        if (validOptions.isEmpty()) {
-            return isTypeValid(input);
+        return matchesValidOptions(input) && isTypeValid(input);
+    }
+
+    /**
+     * Validates and converts the input in a single step.
+     * Checks the valid options list (if any), then parses the value with {@link #parseValue(String)}.
+     *
+     * @param input The input string to parse
+     * @return The converted value, or the error message to show
+     */
+    public final ArgumentResult<T> parse(String input) {
+        if (!matchesValidOptions(input)) {
+            return ArgumentResult.error(getErrorMessage(input));
         }
-        return validOptions.contains(input) && isTypeValid(input);
+        return convertsThroughOverrides() ? checkAndConvert(input) : parseValue(input);
+    }
+
+    /**
+     * Parses the input into the target type T, without checking the valid options.
+     * The default falls back to {@link #isTypeValid(String)} followed by {@link #convert(String)},
+     * which keeps arguments that only implement those two methods working.
+     * Built-in arguments parse the input once, here or in a typed hook like {@code parseInt}, and derive their
+     * {@code isTypeValid} and {@code convert} from it. A subclass that overrides {@code isTypeValid} or
+     * {@code convert} anyway is parsed through those overrides instead, see {@link #convertsThroughOverrides()}.
+     *
+     * @param input The input string to parse
+     * @return The converted value, or the error message to show
+     */
+    protected ArgumentResult<T> parseValue(String input) {
+        return checkAndConvert(input);
+    }
+
+    /**
+     * Whether {@link #isTypeValid(String)} or {@link #convert(String)} is overridden below the class that
+     * implements {@link #parseValue(String)}, e.g. by a plugin's subclass of a built-in argument.
+     * Parsing then goes through {@code isTypeValid} and {@code convert}, so the overrides keep applying.
+     *
+     * @return true if the native parsing of a superclass must be bypassed
+     */
+    protected final boolean convertsThroughOverrides() {
+        return CONVERTS_THROUGH_OVERRIDES.get(getClass());
+    }
+
+    private ArgumentResult<T> checkAndConvert(String input) {
+        return isTypeValid(input) ? ArgumentResult.success(convert(input)) : ArgumentResult.error(getErrorMessage(input));
+    }
+
+    /**
+     * Parses the input and stores the value straight into a slot of the arguments container.
+     * Primitive arguments override this so their values are never boxed, parsing through the same typed hook
+     * as {@link #parseValue(String)} so the input is parsed in one place.
+     *
+     * @param input The input string to parse
+     * @param target The container receiving the value
+     * @param slot The slot of this argument in the container's layout
+     * @return null on success, otherwise the error message to show
+     */
+    public String parseInto(String input, Arguments target, int slot) {
+        ArgumentResult<T> result = parse(input);
+        if (!result.isSuccess()) {
+            return result.getError();
+        }
+        target.put(slot, result.getValue());
+        return null;
+    }
+
+    /**
+     * Checks the input against the valid options list only, without type-specific validation.
+     *
+     * @param input The input string to check
+     * @return true if there are no valid options or the input is one of them
+     */
+    public boolean matchesValidOptions(String input) {
+        OptionsSource.Snapshot options = validOptions.snapshot();
+        return options.isEmpty() || options.contains(input, caseInsensitiveOptions);
+    }
+
+    /**
+     * Whether this argument must be resolved with {@link #resolveAsync(String)} instead of
+     * {@link #parse(String)}, because resolving it may block.
+     * The command is only dispatched once resolution completes.
+     *
+     * @return true if the argument resolves asynchronously
+     */
+    public boolean isResolvedAsync() {
+        return false;
+    }
+
+    /**
+     * Resolves the input to its value without blocking the calling thread.
+     * The valid options are already checked by the caller.
+     * Override together with {@link #isResolvedAsync()} for arguments that need I/O or network lookups.
+     *
+     * @param input The input string to resolve
+     * @return A future completed with the converted value or the error message
+     */
+    public CompletableFuture<ArgumentResult<T>> resolveAsync(String input) {
+        return CompletableFuture.completedFuture(convertsThroughOverrides() ? checkAndConvert(input) : parseValue(input));
     }
 
     /**
@@ -237,20 +464,89 @@ public abstract class CommandArgument<T> {
      * @return A filtered list of suggestions that match the current input
      */
     public final List<String> getSuggestions(CommandSender sender, String currentInput) {
-        List<String> validOptions = getValidOptions();
-        if (!validOptions.isEmpty()) {
-            return filterSuggestions(validOptions, currentInput);
+        OptionsSource.Snapshot valid = validOptions.snapshot();
+        if (!valid.isEmpty()) {
+            return valid.complete(currentInput);
         }
 
-        List<String> suggestedOptions = getSuggestedOptions();
-        if (!suggestedOptions.isEmpty()) {
-            return filterSuggestions(suggestedOptions, currentInput);
+        OptionsSource.Snapshot suggested = suggestedOptions.snapshot();
+        if (!suggested.isEmpty()) {
+            return suggested.complete(currentInput);
         }
 
         List<String> customSuggestions = getCustomSuggestions(sender, currentInput);
         return filterSuggestions(customSuggestions, currentInput);
     }
 
+    /**
+     * Whether {@link #getSuggestions(CommandSender, String)} may be called off the main thread,
+     * e.g. from Paper's async tab complete event.
+     * Unless declared on the builder, this holds for fixed option lists and thread-safe custom suggestions,
+     * but not for options suppliers.
+     *
+     * @return true if suggestions can be computed on any thread
+     */
+    public boolean isSuggestionThreadSafe() {
+        if (suggestionsThreadSafe != null) return suggestionsThreadSafe;
+        return !validOptions.hasSupplier() && !suggestedOptions.hasSupplier() && customSuggestionsThreadSafe();
+    }
+
+    /**
+     * Whether {@link #getCustomSuggestions(CommandSender, String)} may be called off the main thread.
+     * Custom suggestions are completed on the main thread unless the argument opts in by overriding this, in the same
+     * class as its suggestions or below, and returning true. Only do that when they don't read Bukkit state.
+     *
+     * @return true if custom suggestions can be computed on any thread
+     */
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return false;
+    }
+
+    private boolean customSuggestionsThreadSafe() {
+        Class<?> suggestions = CUSTOM_SUGGESTIONS_DECLARED_BY.get(getClass());
+        if (suggestions == CommandArgument.class) return true; // Nothing is suggested by default
+        return suggestions.isAssignableFrom(THREAD_SAFETY_DECLARED_BY.get(getClass())) && areCustomSuggestionsThreadSafe();
+    }
+
+    private static ClassValue<Class<?>> declaredBy(String method, Class<?>... parameterTypes) {
+        return new ClassValue<>() {
+            @Override
+            protected Class<?> computeValue(Class<?> type) {
+                return declaringClass(type, method, parameterTypes);
+            }
+        };
+    }
+
+    /**
+     * @return The most derived class declaring the method, CommandArgument if no subclass overrides it
+     */
+    private static Class<?> declaringClass(Class<?> type, String method, Class<?>... parameterTypes) {
+        for (Class<?> current = type; current != CommandArgument.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod(method, parameterTypes);
+                return current;
+            } catch (NoSuchMethodException ignored) {
+                // Not overridden here, look further up
+            }
+        }
+        return CommandArgument.class;
+    }
+
+    private static boolean isBelow(Class<?> type, Class<?> ancestor) {
+        return type != ancestor && ancestor.isAssignableFrom(type);
+    }
+
+    /**
+     * Whether the suggestions for an input are always the suggestions for any shorter input, filtered by prefix.
+     * This lets cached results for a shorter input be narrowed down instead of asking for suggestions again.
+     * Override and return false when suggestions are generated from the input itself.
+     *
+     * @return true if the suggestions only narrow down as the input grows
+     */
+    public boolean isPrefixFiltered() {
+        return true;
+    }
+
     /**
      * Filters a list of suggestions based on the current input prefix.
      *
@@ -258,10 +554,16 @@ public abstract class CommandArgument<T> {
      * @param currentInput The current input to filter by
      * @return A filtered list of suggestions that start with the current input
      */
-    private List<String> filterSuggestions(List<String> suggestions, String currentInput) {
-        return suggestions.stream()
-            .filter(option -> option.toLowerCase().startsWith(currentInput.toLowerCase()))
-            .collect(Collectors.toList());
+    private static List<String> filterSuggestions(List<String> suggestions, String currentInput) {
+        // regionMatches compares case-insensitively in place, without lowercasing a copy of every option
+        int length = currentInput.length();
+        List<String> matches = new ArrayList<>();
+        for (String option : suggestions) {
+            if (option.regionMatches(true, 0, currentInput, 0, length)) {
+                matches.add(option);
+            }
+        }
+        return matches;
     }
 
     /**
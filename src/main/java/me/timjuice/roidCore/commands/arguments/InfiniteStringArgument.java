@@ -20,14 +20,20 @@ public class InfiniteStringArgument extends CommandArgument<String> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        return !input.trim().isEmpty(); // Accepts any non-empty string
+        return parseValue(input).isSuccess();
     }
 
     @Override
     public String convert(String input) {
-        return input; // Split by spaces to accept multiple strings
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<String> parseValue(String input) {
+        return !input.trim().isEmpty() ? ArgumentResult.success(input) : ArgumentResult.error(getErrorMessage(input));
     }
 
     @Override
@@ -18,21 +18,55 @@ public class IntegerArgument extends CommandArgument<Integer> {
         };
     }
 
+    // Validation and conversion both go through parseInt, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
         try {
-            Integer.parseInt(input);
+            parseInt(input);
             return true;
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
 
     @Override
     public Integer convert(String input) {
+        return parseInt(input);
+    }
+
+    @Override
+    protected final ArgumentResult<Integer> parseValue(String input) {
+        try {
+            return ArgumentResult.success(parseInt(input));
+        } catch (IllegalArgumentException e) {
+            return ArgumentResult.error(getErrorMessage(input));
+        }
+    }
+
+    /**
+     * Parses the input. Every other way of validating or converting this argument goes through here,
+     * so overriding it e.g. to only accept a range applies everywhere.
+     *
+     * @param input The input string to parse
+     * @return The parsed value
+     * @throws IllegalArgumentException If the input isn't accepted, e.g. a {@link NumberFormatException}
+     */
+    protected int parseInt(String input) {
         return Integer.parseInt(input);
     }
 
+    @Override
+    public final String parseInto(String input, Arguments target, int slot) {
+        if (convertsThroughOverrides()) return super.parseInto(input, target, slot); // Boxed, but honors the overrides
+        if (!matchesValidOptions(input)) return getErrorMessage(input);
+        try {
+            target.putInt(slot, parseInt(input)); // Stored unboxed
+            return null;
+        } catch (IllegalArgumentException e) {
+            return getErrorMessage(input);
+        }
+    }
+
     @Override
     public String getErrorMessage(String input) {
         return generateErrorMessage(input, "A positive number value (e.g., 10, 25).");
@@ -20,21 +20,55 @@ public class LongArgument extends CommandArgument<Long> {
         };
     }
 
+    // Validation and conversion both go through parseLong, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
         try {
-            Long.parseLong(input);
+            parseLong(input);
             return true;
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
 
     @Override
     public Long convert(String input) {
+        return parseLong(input);
+    }
+
+    @Override
+    protected final ArgumentResult<Long> parseValue(String input) {
+        try {
+            return ArgumentResult.success(parseLong(input));
+        } catch (IllegalArgumentException e) {
+            return ArgumentResult.error(getErrorMessage(input));
+        }
+    }
+
+    /**
+     * Parses the input. Every other way of validating or converting this argument goes through here,
+     * so overriding it e.g. to only accept a range applies everywhere.
+     *
+     * @param input The input string to parse
+     * @return The parsed value
+     * @throws IllegalArgumentException If the input isn't accepted, e.g. a {@link NumberFormatException}
+     */
+    protected long parseLong(String input) {
         return Long.parseLong(input);
     }
 
+    @Override
+    public final String parseInto(String input, Arguments target, int slot) {
+        if (convertsThroughOverrides()) return super.parseInto(input, target, slot); // Boxed, but honors the overrides
+        if (!matchesValidOptions(input)) return getErrorMessage(input);
+        try {
+            target.putLong(slot, parseLong(input)); // Stored unboxed
+            return null;
+        } catch (IllegalArgumentException e) {
+            return getErrorMessage(input);
+        }
+    }
+
     @Override
     public String getErrorMessage(String input) {
         return tc(String.format("&cInvalid long input: '%s'", input));
@@ -1,12 +1,12 @@
 package me.timjuice.roidCore.commands.arguments;
 
-import org.bukkit.Bukkit;
+import me.timjuice.roidCore.players.OfflinePlayerResolver;
+import me.timjuice.roidCore.players.OnlinePlayerIndex;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import static me.timjuice.roidCore.utils.FormatUtil.tc;
 
@@ -24,16 +24,40 @@ public class OfflinePlayerArgument extends CommandArgument<OfflinePlayer> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(input);
-        if (offlinePlayer == null || !offlinePlayer.hasPlayedBefore()) return false;
-        return true;
+        return parseValue(input).isSuccess();
     }
 
+    /**
+     * Converts without blocking, so only players that are online or in the {@link me.timjuice.roidCore.players.PlayerNameIndex}
+     * are found. Commands resolve every other name through {@link #resolveAsync(String)}.
+     *
+     * @return The player, or null if the name isn't known yet
+     */
     @Override
     public OfflinePlayer convert(String input) {
-        return Bukkit.getOfflinePlayer(input);
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<OfflinePlayer> parseValue(String input) {
+        // The main thread path never does a profile lookup, unknown names are only resolved asynchronously
+        OfflinePlayer offlinePlayer = OfflinePlayerResolver.resolveKnown(input);
+        if (offlinePlayer == null) return ArgumentResult.error(getErrorMessage(input));
+        return ArgumentResult.success(offlinePlayer);
+    }
+
+    @Override
+    public boolean isResolvedAsync() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<ArgumentResult<OfflinePlayer>> resolveAsync(String input) {
+        return OfflinePlayerResolver.resolve(input)
+                .thenApply(offlinePlayer -> offlinePlayer != null ? ArgumentResult.success(offlinePlayer) : ArgumentResult.error(getErrorMessage(input)));
     }
 
     @Override
@@ -43,9 +67,12 @@ public class OfflinePlayerArgument extends CommandArgument<OfflinePlayer> {
 
     @Override
     public List<String> getCustomSuggestions(CommandSender sender, String currentInput) {
-        return Bukkit.getOnlinePlayers().stream()
-                .map(Player::getName)
-                .filter(name -> name.toLowerCase().startsWith(currentInput.toLowerCase()))
-                .collect(Collectors.toList()); // Provide online player names as suggestions
+        return OnlinePlayerIndex.getInstance().suggest(sender, currentInput); // Provide online player names as suggestions
+    }
+
+    // The online player index can be read from any thread
+    @Override
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return true;
     }
 }
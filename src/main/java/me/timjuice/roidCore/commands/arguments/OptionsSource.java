@@ -0,0 +1,199 @@
+package me.timjuice.roidCore.commands.arguments;
+
+import me.timjuice.roidCore.utils.PrefixIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Where the valid or suggested options of an argument come from.
+ * <p>
+ * Fixed and versioned sources are compiled into a {@link Snapshot} holding hash sets for O(1) validation,
+ * a prefix index for tab completion and the joined list for error messages. A fixed source is compiled once,
+ * a versioned one again whenever its version changes. Dynamic sources can change at any time without notice,
+ * so they're asked on every call and only scanned linearly.
+ * </p>
+ */
+public final class OptionsSource {
+    private static final OptionsSource NONE = fixed(List.of());
+
+    private final Supplier<? extends Collection<String>> supplier;
+    private final LongSupplier version; // Null for fixed and dynamic sources
+    private final boolean dynamic;
+    private volatile Snapshot snapshot;
+
+    private OptionsSource(Supplier<? extends Collection<String>> supplier, LongSupplier version, boolean dynamic) {
+        this.supplier = supplier;
+        this.version = version;
+        this.dynamic = dynamic;
+    }
+
+    public static OptionsSource none() {
+        return NONE;
+    }
+
+    /**
+     * Options that never change. They're copied and compiled right away.
+     */
+    public static OptionsSource fixed(Collection<String> options) {
+        OptionsSource source = new OptionsSource(null, null, false);
+        source.snapshot = Snapshot.indexed(0, List.copyOf(options));
+        return source;
+    }
+
+    /**
+     * Options that only change together with a version, e.g. a counter bumped whenever the options are modified.
+     * The options are only read again after the version changed.
+     *
+     * @param options Supplies the current options
+     * @param version Supplies the current version of the options
+     */
+    public static OptionsSource versioned(Supplier<? extends Collection<String>> options, LongSupplier version) {
+        return new OptionsSource(options, version, false);
+    }
+
+    /**
+     * Options that may change at any time, read on every use.
+     */
+    public static OptionsSource dynamic(Supplier<? extends Collection<String>> options) {
+        return new OptionsSource(options, null, true);
+    }
+
+    /**
+     * Gets the current options. The snapshot of a fixed or versioned source is shared until the options change.
+     *
+     * @return The current snapshot
+     */
+    public Snapshot snapshot() {
+        if (dynamic) {
+            return Snapshot.unindexed(read());
+        }
+
+        Snapshot current = snapshot;
+        if (version == null) return current;
+
+        long currentVersion = version.getAsLong();
+        if (current == null || current.version != currentVersion) {
+            // Racing threads may both rebuild, which only costs the duplicate work
+            current = Snapshot.indexed(currentVersion, read());
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return true if the options can change without this source knowing
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * @return true if the options are read from a supplier rather than fixed
+     */
+    public boolean hasSupplier() {
+        return supplier != null;
+    }
+
+    private List<String> read() {
+        Collection<String> options = supplier.get();
+        if (options == null) return List.of();
+        return options instanceof List<String> list && dynamic ? list : List.copyOf(options);
+    }
+
+    /**
+     * Immutable view of the options at one point in time.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<String> options;
+        // Null for snapshots of dynamic sources, which are scanned instead
+        private final Set<String> exact;
+        private final Set<String> folded;
+        private final PrefixIndex<String> index;
+        private String joined;
+
+        private Snapshot(long version, List<String> options, Set<String> exact, Set<String> folded, PrefixIndex<String> index) {
+            this.version = version;
+            this.options = options;
+            this.exact = exact;
+            this.folded = folded;
+            this.index = index;
+        }
+
+        private static Snapshot indexed(long version, List<String> options) {
+            Set<String> folded = new HashSet<>();
+            for (String option : options) {
+                folded.add(option.toLowerCase(Locale.ROOT));
+            }
+            return new Snapshot(version, options, Set.copyOf(options), folded, PrefixIndex.of(options));
+        }
+
+        private static Snapshot unindexed(List<String> options) {
+            return new Snapshot(0, options, null, null, null);
+        }
+
+        public List<String> getOptions() {
+            return options;
+        }
+
+        public boolean isEmpty() {
+            return options.isEmpty();
+        }
+
+        /**
+         * Checks whether the input is one of the options.
+         *
+         * @param input The input to check
+         * @param ignoreCase Whether options match regardless of case
+         * @return true if the input is one of the options
+         */
+        public boolean contains(String input, boolean ignoreCase) {
+            if (exact != null) {
+                return ignoreCase ? folded.contains(input.toLowerCase(Locale.ROOT)) : exact.contains(input);
+            }
+
+            for (String option : options) {
+                if (ignoreCase ? option.equalsIgnoreCase(input) : option.equals(input)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Gets the options starting with the input, ignoring case.
+         *
+         * @param input The input typed so far
+         * @return A new list of the matching options
+         */
+        public List<String> complete(String input) {
+            if (index != null) return index.complete(input);
+
+            int length = input.length();
+            List<String> matches = new ArrayList<>();
+            for (String option : options) {
+                if (option.regionMatches(true, 0, input, 0, length)) {
+                    matches.add(option);
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * @return The options separated by commas, built once per snapshot
+         */
+        public String getJoined() {
+            String current = joined;
+            if (current == null) {
+                current = String.join(", ", options);
+                joined = current;
+            }
+            return current;
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package me.timjuice.roidCore.commands.arguments;
 
-import org.bukkit.Bukkit;
+import me.timjuice.roidCore.players.OnlinePlayerIndex;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static me.timjuice.roidCore.utils.FormatUtil.tc;
 
@@ -23,14 +22,21 @@ public class PlayerArgument extends CommandArgument<Player> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        return Bukkit.getPlayerExact(input) != null; // Check if player is online
+        return parseValue(input).isSuccess();
     }
 
     @Override
     public Player convert(String input) {
-        return Bukkit.getPlayerExact(input);
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<Player> parseValue(String input) {
+        Player player = OnlinePlayerIndex.getInstance().getExact(input);
+        return player != null ? ArgumentResult.success(player) : ArgumentResult.error(getErrorMessage(input));
     }
 
     @Override
@@ -40,9 +46,12 @@ public class PlayerArgument extends CommandArgument<Player> {
 
     @Override
     public List<String> getCustomSuggestions(CommandSender sender, String currentInput) {
-        return Bukkit.getOnlinePlayers().stream()
-                .map(Player::getName)
-                .filter(name -> name.toLowerCase().startsWith(currentInput.toLowerCase()))
-                .collect(Collectors.toList()); // Provide online player names as suggestions
+        return OnlinePlayerIndex.getInstance().suggest(sender, currentInput); // Provide online player names as suggestions
+    }
+
+    // The online player index can be read from any thread
+    @Override
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return true;
     }
 }
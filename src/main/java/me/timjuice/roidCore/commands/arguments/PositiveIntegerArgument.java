@@ -21,13 +21,10 @@ public class PositiveIntegerArgument extends IntegerArgument {
     }
 
     @Override
-    public boolean isTypeValid(String input) {
-        try {
-            int value = Integer.parseInt(input);
-            return value > 0;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    protected int parseInt(String input) {
+        int value = super.parseInt(input);
+        if (value <= 0) throw new IllegalArgumentException("Not a positive integer: " + input);
+        return value;
     }
 
     @Override
@@ -18,21 +18,55 @@ public class ShortArgument extends CommandArgument<Short> {
         };
     }
 
+    // Validation and conversion both go through parseShort, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
         try {
-            Short.parseShort(input);
+            parseShort(input);
             return true;
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             return false;
         }
     }
 
     @Override
     public Short convert(String input) {
+        return parseShort(input);
+    }
+
+    @Override
+    protected final ArgumentResult<Short> parseValue(String input) {
+        try {
+            return ArgumentResult.success(parseShort(input));
+        } catch (IllegalArgumentException e) {
+            return ArgumentResult.error(getErrorMessage(input));
+        }
+    }
+
+    /**
+     * Parses the input. Every other way of validating or converting this argument goes through here,
+     * so overriding it e.g. to only accept a range applies everywhere.
+     *
+     * @param input The input string to parse
+     * @return The parsed value
+     * @throws IllegalArgumentException If the input isn't accepted, e.g. a {@link NumberFormatException}
+     */
+    protected short parseShort(String input) {
         return Short.parseShort(input);
     }
 
+    @Override
+    public final String parseInto(String input, Arguments target, int slot) {
+        if (convertsThroughOverrides()) return super.parseInto(input, target, slot); // Boxed, but honors the overrides
+        if (!matchesValidOptions(input)) return getErrorMessage(input);
+        try {
+            target.putShort(slot, parseShort(input)); // Stored unboxed
+            return null;
+        } catch (IllegalArgumentException e) {
+            return getErrorMessage(input);
+        }
+    }
+
     @Override
     public String getErrorMessage(String input) {
         return generateErrorMessage(input, "A short number value (e.g., 5, 20).");
@@ -16,21 +16,29 @@ public class StringArgument extends CommandArgument<String> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     protected boolean isTypeValid(String input) {
-        return input != null && !input.trim().isEmpty();
+        return parseValue(input).isSuccess();
     }
 
     @Override
     public String convert(String input) {
-        return input;
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<String> parseValue(String input) {
+        return input != null && !input.trim().isEmpty() ? ArgumentResult.success(input) : ArgumentResult.error(getErrorMessage(input));
     }
 
     @Override
     public String getErrorMessage(String input) {
-        if (getValidOptions().isEmpty()) {
+        // One snapshot for both the check and the joined options, the supplier isn't asked twice
+        OptionsSource.Snapshot validOptions = getValidOptionsSnapshot();
+        if (validOptions.isEmpty()) {
             return tc(String.format("&cInvalid argument: '%s'", input));
         }
-        return tc(String.format("&cInvalid argument: '%s'. Expected: %s", input, String.join(", ", getValidOptions())));
+        return tc(String.format("&cInvalid argument: '%s'. Expected: %s", input, validOptions.getJoined()));
     }
 }
@@ -68,32 +68,35 @@ public class TimeArgument extends CommandArgument<Duration> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return false;
+        return parseValue(input).isSuccess();
+    }
+
+    @Override
+    public Duration convert(String input) {
+        ArgumentResult<Duration> result = parseValue(input);
+        if (!result.isSuccess()) {
+            throw new DateTimeParseException("Invalid duration format", input, 0);
         }
+        return result.getValue();
+    }
 
+    @Override
+    protected ArgumentResult<Duration> parseValue(String input) {
         // Check if the entire input matches expected format
-        if (!TIME_PATTERN.matcher(input.trim()).matches()) {
-            return false;
+        if (input == null || !TIME_PATTERN.matcher(input.trim()).matches()) {
+            return ArgumentResult.error(getErrorMessage(input));
         }
 
         try {
-            // Attempt to parse and validate the duration isn't zero
+            // Parse once and validate the duration isn't zero
             Duration duration = parseDuration(input);
-            return !duration.isZero();
+            return duration.isZero() ? ArgumentResult.error(getErrorMessage(input)) : ArgumentResult.success(duration);
         } catch (IllegalArgumentException | DateTimeParseException e) {
-            return false;
-        }
-    }
-
-    @Override
-    public Duration convert(String input) {
-        if (!isTypeValid(input)) {
-            throw new DateTimeParseException("Invalid duration format", input, 0);
+            return ArgumentResult.error(getErrorMessage(input));
         }
-        return parseDuration(input);
     }
 
     @Override
@@ -122,6 +125,18 @@ public class TimeArgument extends CommandArgument<Duration> {
         return suggestions;
     }
 
+    // Only derived from the input
+    @Override
+    protected boolean areCustomSuggestionsThreadSafe() {
+        return true;
+    }
+
+    // Suggestions append units to the typed number, so they can't be derived from a shorter input's suggestions
+    @Override
+    public boolean isPrefixFiltered() {
+        return false;
+    }
+
     private static Duration parseDuration(String input) {
         if (input == null || input.trim().isEmpty()) {
             throw new IllegalArgumentException("Duration cannot be null or empty");
@@ -22,14 +22,21 @@ public class WorldArgument extends CommandArgument<World> {
         };
     }
 
+    // Validation and conversion both go through parseValue, overriding that covers every path
     @Override
     public boolean isTypeValid(String input) {
-        return Bukkit.getWorld(input) != null;
+        return parseValue(input).isSuccess();
     }
 
     @Override
     public World convert(String input) {
-        return Bukkit.getWorld(input);
+        return parseValue(input).getValue();
+    }
+
+    @Override
+    protected ArgumentResult<World> parseValue(String input) {
+        World world = Bukkit.getWorld(input);
+        return world != null ? ArgumentResult.success(world) : ArgumentResult.error(getErrorMessage(input));
     }
 
     @Override
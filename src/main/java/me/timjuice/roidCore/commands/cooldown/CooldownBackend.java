@@ -0,0 +1,40 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared storage for cooldowns, e.g. a database or cache used by every server of a network.
+ * <p>
+ * The {@link me.timjuice.roidCore.commands.CommandManager} never waits on a backend. Its local
+ * {@link CooldownStore} acts as a near-cache, writes are batched and sent behind the dispatch path,
+ * and a player's cooldowns are read through when they join. Methods are called off the main thread.
+ * </p>
+ */
+public interface CooldownBackend {
+
+    /**
+     * Loads every cooldown of a player that may still be running.
+     *
+     * @param uniqueId The player
+     * @return A future of command keys to expiry timestamps in epoch milliseconds
+     */
+    CompletableFuture<Map<Long, Long>> load(UUID uniqueId);
+
+    /**
+     * Stores a batch of cooldowns. Entries with an expiry of 0 were reset and should be removed.
+     * Within one batch there is at most one entry per player and command key.
+     *
+     * @param entries The entries to store
+     * @return A future completed once the batch is stored
+     */
+    CompletableFuture<Void> writeBatch(List<CooldownEntry> entries);
+
+    /**
+     * Releases the backend's resources, called after the last batch was written.
+     */
+    default void close() {
+    }
+}
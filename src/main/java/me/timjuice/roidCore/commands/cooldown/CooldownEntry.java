@@ -0,0 +1,29 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import java.util.UUID;
+
+/**
+ * A cooldown as it is persisted or replicated.
+ *
+ * @param uniqueId The player
+ * @param key The command key, see {@link #keyOf(String)}
+ * @param expiresAt The expiry in epoch milliseconds, 0 if the cooldown was reset
+ */
+public record CooldownEntry(UUID uniqueId, long key, long expiresAt) {
+
+    /**
+     * Derives the stable key a command's cooldowns are stored under. Ids assigned at registration change
+     * between restarts and differ between servers, names don't.
+     *
+     * @param commandName The command name, case-insensitive
+     * @return The 64-bit FNV-1a hash of the lowercase name
+     */
+    public static long keyOf(String commandName) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < commandName.length(); i++) {
+            hash ^= Character.toLowerCase(commandName.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
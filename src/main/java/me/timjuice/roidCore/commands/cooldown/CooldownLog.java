@@ -0,0 +1,313 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import me.timjuice.roidCore.utils.MappedBuffers;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe, append-only log of persistent cooldowns, written through a memory mapping.
+ * <p>
+ * Every record is fixed-size and checksummed: player UUID, a key derived from the command name, the expiry and a CRC32.
+ * Callers only enqueue records, a background flusher writes them in batches, so the dispatch path never touches the disk.
+ * A torn or corrupt record at the end of the file, e.g. after a crash, ends the replay and is overwritten by the next write.
+ * Once the file holds far more records than live cooldowns, the flusher rewrites it with only the live ones.
+ * </p>
+ */
+public final class CooldownLog {
+    private static final int MAGIC = 0x52434C47; // "RCLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int PAYLOAD_SIZE = 8 + 8 + 8 + 8; // uuid, command key, expiry
+    private static final int RECORD_SIZE = PAYLOAD_SIZE + 4; // payload, crc
+    private static final long MAP_CHUNK_SIZE = RECORD_SIZE * 4096L;
+    private static final long FLUSH_INTERVAL_MILLIS = 200L;
+    private static final int COMPACT_MIN_RECORDS = 4096;
+
+    private final Plugin plugin;
+    private final File file;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<CooldownEntry> pending = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+
+    // Everything below is only touched while holding the write lock
+    private final Map<EntryKey, Long> live = new HashMap<>();
+    private final byte[] scratch = new byte[PAYLOAD_SIZE];
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long writeOffset;
+    private long mappedSize;
+    private int recordCount;
+    private int compactAfter = COMPACT_MIN_RECORDS; // Raised after a failed compaction so it isn't retried every flush
+    private volatile boolean running;
+    private volatile boolean closed; // Set by close, or once the file can no longer be written
+
+    public CooldownLog(Plugin plugin, File file, Executor executor) {
+        this.plugin = plugin;
+        this.file = file;
+        this.executor = executor;
+    }
+
+    private record EntryKey(UUID uniqueId, long key) {
+    }
+
+    /**
+     * Replays the log, maps it for writing and starts the background flusher.
+     * Does file I/O, so it is meant to be called off the main thread. Cooldowns appended in the meantime are kept.
+     *
+     * @param now The current time in milliseconds, cooldowns that expired before it are skipped
+     * @return The cooldowns that are still active, grouped by command key
+     * @throws IOException If the file can't be read or isn't a cooldown log
+     */
+    public Map<Long, List<CooldownEntry>> open(long now) throws IOException {
+        Map<Long, List<CooldownEntry>> active = new HashMap<>();
+        synchronized (writeLock) {
+            if (closed) return active; // Closed before it got to open
+            try {
+                file.getParentFile().mkdirs();
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                if (channel.size() < HEADER_SIZE) {
+                    channel.truncate(0);
+                    channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+                }
+                remap(Math.max(channel.size(), HEADER_SIZE + MAP_CHUNK_SIZE));
+                if (buffer.getInt(0) != MAGIC) {
+                    MappedBuffers.unmap(buffer);
+                    buffer = null;
+                    channel.close();
+                    throw new IOException("Not a cooldown log: " + file.getName());
+                }
+            } catch (IOException e) {
+                closed = true;
+                pending.clear();
+                throw e;
+            }
+            replay();
+
+            live.forEach((key, expiresAt) -> {
+                if (expiresAt > now) {
+                    active.computeIfAbsent(key.key(), k -> new ArrayList<>()).add(new CooldownEntry(key.uniqueId(), key.key(), expiresAt));
+                }
+            });
+            running = true;
+        }
+
+        try {
+            executor.execute(this::runFlusher);
+        } catch (RejectedExecutionException e) {
+            ConsoleLogger.warning(plugin, "Cooldown log flusher could not start, records are written on shutdown only.");
+        }
+        return active;
+    }
+
+    /**
+     * Queues a cooldown to be written. Never blocks.
+     *
+     * @param uniqueId The player
+     * @param key The command key
+     * @param expiresAt The expiry in epoch milliseconds, 0 to record a reset
+     */
+    public void append(UUID uniqueId, long key, long expiresAt) {
+        if (closed) return;
+        pending.offer(new CooldownEntry(uniqueId, key, expiresAt));
+    }
+
+    /**
+     * Writes everything still queued, syncs the file to disk and closes it. Called when the plugin disables.
+     */
+    public void close() {
+        closed = true;
+        synchronized (writeLock) {
+            if (!running) return;
+            running = false;
+            flush();
+            MappedBuffers.unmap(buffer);
+            buffer = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                ConsoleLogger.error(plugin, "Failed to close cooldown log: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                Thread.sleep(FLUSH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (writeLock) {
+                if (!running) return;
+                flush();
+                if (recordCount > Math.max(compactAfter, live.size() * 4)) {
+                    compact(System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    private void replay() {
+        long offset = HEADER_SIZE;
+        while (offset + RECORD_SIZE <= mappedSize) {
+            int position = (int) offset;
+            buffer.get(position, scratch);
+            int storedCrc = buffer.getInt(position + PAYLOAD_SIZE);
+            crc.reset();
+            crc.update(scratch);
+            // Unused space is zero-filled, and the checksum of an all-zero payload isn't zero
+            if (storedCrc != (int) crc.getValue()) break;
+
+            ByteBuffer record = ByteBuffer.wrap(scratch);
+            EntryKey key = new EntryKey(new UUID(record.getLong(0), record.getLong(8)), record.getLong(16));
+            long expiresAt = record.getLong(24);
+            if (expiresAt == 0L) {
+                live.remove(key);
+            } else {
+                live.put(key, expiresAt); // Later records win
+            }
+            recordCount++;
+            offset += RECORD_SIZE;
+        }
+        writeOffset = offset;
+    }
+
+    private void flush() {
+        boolean wrote = false;
+        CooldownEntry entry;
+        while ((entry = pending.poll()) != null) {
+            try {
+                write(entry);
+                wrote = true;
+            } catch (IOException e) {
+                ConsoleLogger.error(plugin, "Failed to write cooldown log: " + e.getMessage());
+                return;
+            }
+            EntryKey key = new EntryKey(entry.uniqueId(), entry.key());
+            if (entry.expiresAt() == 0L) {
+                live.remove(key);
+            } else {
+                live.put(key, entry.expiresAt());
+            }
+        }
+        if (wrote) buffer.force();
+    }
+
+    private void write(CooldownEntry entry) throws IOException {
+        if (writeOffset + RECORD_SIZE > mappedSize) {
+            buffer.force();
+            remap(mappedSize + MAP_CHUNK_SIZE);
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        record.putLong(0, entry.uniqueId().getMostSignificantBits())
+            .putLong(8, entry.uniqueId().getLeastSignificantBits())
+            .putLong(16, entry.key())
+            .putLong(24, entry.expiresAt());
+        crc.reset();
+        crc.update(scratch);
+
+        int position = (int) writeOffset;
+        buffer.put(position, scratch);
+        buffer.putInt(position + PAYLOAD_SIZE, (int) crc.getValue());
+        writeOffset += RECORD_SIZE;
+        recordCount++;
+    }
+
+    private void remap(long size) throws IOException {
+        MappedByteBuffer previous = buffer;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // Grows the file if needed
+        mappedSize = size;
+        MappedBuffers.unmap(previous);
+    }
+
+    /**
+     * Waits until the log has grown to twice its current size before compacting again.
+     */
+    private void backOffCompaction() {
+        compactAfter = Math.max(COMPACT_MIN_RECORDS, recordCount) * 2;
+        ConsoleLogger.warning(plugin, "Cooldown log compaction postponed until it holds " + compactAfter + " records.");
+    }
+
+    /**
+     * Rewrites the log with only the cooldowns that are still running.
+     */
+    private void compact(long now) {
+        live.values().removeIf(expiresAt -> expiresAt <= now);
+
+        File temporary = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + live.size() * RECORD_SIZE);
+            data.putInt(MAGIC).putInt(VERSION);
+            live.forEach((key, expiresAt) -> {
+                ByteBuffer.wrap(scratch)
+                    .putLong(0, key.uniqueId().getMostSignificantBits())
+                    .putLong(8, key.uniqueId().getLeastSignificantBits())
+                    .putLong(16, key.key())
+                    .putLong(24, expiresAt);
+                crc.reset();
+                crc.update(scratch);
+                data.put(scratch).putInt((int) crc.getValue());
+            });
+            data.flip();
+            while (data.hasRemaining()) out.write(data);
+            out.force(true);
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Failed to compact cooldown log: " + e.getMessage());
+            backOffCompaction();
+            return;
+        }
+
+        boolean replaced = false;
+        try {
+            buffer.force();
+            MappedBuffers.unmap(buffer); // Closing the channel doesn't release the mapping
+            buffer = null;
+            channel.close();
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Failed to replace cooldown log: " + e.getMessage());
+            temporary.delete();
+        }
+
+        // Continue on whatever file is in place now, the old one is still complete if the move failed
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            remap(Math.max(channel.size(), HEADER_SIZE + MAP_CHUNK_SIZE));
+            live.clear();
+            recordCount = 0;
+            replay();
+            if (replaced) {
+                compactAfter = COMPACT_MIN_RECORDS;
+            } else {
+                backOffCompaction();
+            }
+        } catch (IOException e) {
+            running = false;
+            closed = true;
+            pending.clear();
+            ConsoleLogger.error(plugin, "Cooldown log disabled, could not reopen it: " + e.getMessage());
+        }
+    }
+}
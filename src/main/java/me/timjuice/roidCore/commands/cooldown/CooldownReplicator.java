@@ -0,0 +1,136 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind and read-through between a manager's local {@link CooldownStore} and a {@link CooldownBackend}.
+ * <p>
+ * Recording a cooldown only enqueues it. A background task coalesces the queue into one batch per interval,
+ * keeping the newest entry per player and command, with at most one batch in flight.
+ * A batch that fails is retried with the next one unless newer entries replaced it.
+ * </p>
+ */
+public final class CooldownReplicator {
+    private static final long FLUSH_INTERVAL_TICKS = 20L;
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5L;
+
+    private final Plugin plugin;
+    private final CooldownBackend backend;
+    private final ConcurrentLinkedQueue<CooldownEntry> pending = new ConcurrentLinkedQueue<>();
+    // Entries of a failed batch, written again before anything newer from the queue
+    private final Map<EntryKey, CooldownEntry> retry = new ConcurrentHashMap<>();
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private BukkitTask flushTask;
+
+    private record EntryKey(UUID uniqueId, long key) {
+    }
+
+    public CooldownReplicator(Plugin plugin, CooldownBackend backend) {
+        this.plugin = plugin;
+        this.backend = backend;
+    }
+
+    public void start() {
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+
+    /**
+     * Queues a cooldown for the backend. Never blocks.
+     *
+     * @param uniqueId The player
+     * @param key The command key
+     * @param expiresAt The expiry in epoch milliseconds, 0 to record a reset
+     */
+    public void record(UUID uniqueId, long key, long expiresAt) {
+        pending.offer(new CooldownEntry(uniqueId, key, expiresAt));
+    }
+
+    /**
+     * Reads a player's cooldowns from the backend.
+     *
+     * @param uniqueId The player
+     * @return A future of command keys to expiry timestamps
+     */
+    public CompletableFuture<Map<Long, Long>> load(UUID uniqueId) {
+        try {
+            return backend.load(uniqueId);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Stops the background task, writes what is left and closes the backend.
+     * Waits a few seconds at most, so a dead backend can't hang the shutdown.
+     */
+    public void close() {
+        if (flushTask != null) flushTask.cancel();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SECONDS);
+        while ((!pending.isEmpty() || !retry.isEmpty() || inFlight.get()) && System.nanoTime() < deadline) {
+            CompletableFuture<Void> batch = flush();
+            if (batch == null) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10)); // Another batch is still in flight
+                continue;
+            }
+            try {
+                batch.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                break; // Already logged by flush
+            }
+        }
+        if (!pending.isEmpty() || !retry.isEmpty()) {
+            ConsoleLogger.warning(plugin, "Some cooldowns could not be written to the cooldown backend before shutdown.");
+        }
+        backend.close();
+    }
+
+    /**
+     * Sends one coalesced batch to the backend.
+     *
+     * @return The batch, or null if another one is still in flight or there is nothing to write
+     */
+    private CompletableFuture<Void> flush() {
+        if (!inFlight.compareAndSet(false, true)) return null;
+
+        Map<EntryKey, CooldownEntry> batch = new LinkedHashMap<>(retry);
+        retry.clear();
+        CooldownEntry entry;
+        while (batch.size() < MAX_BATCH_SIZE && (entry = pending.poll()) != null) {
+            batch.put(new EntryKey(entry.uniqueId(), entry.key()), entry); // Newer entries replace older ones
+        }
+        if (batch.isEmpty()) {
+            inFlight.set(false);
+            return null;
+        }
+
+        CompletableFuture<Void> write;
+        try {
+            write = backend.writeBatch(new ArrayList<>(batch.values()));
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+        return write.whenComplete((ignored, error) -> {
+            if (error != null) {
+                ConsoleLogger.error(plugin, "Failed to write " + batch.size() + " cooldowns to the cooldown backend: " + error.getMessage());
+                batch.forEach(retry::putIfAbsent);
+            }
+            inFlight.set(false);
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe cooldown store keyed by player and an integer command id.
+ * <p>
+ * Every player with a cooldown owns a single array of expiry timestamps, indexed by command id.
+ * Expired entries are dropped when they're cleared or the player is released, and swept once a minute by the owning
+ * manager through {@link #purgeExpired(long)}. A player's array is released as soon as none of its cooldowns are active.
+ * </p>
+ */
+public class CooldownStore {
+    private final ConcurrentHashMap<UUID, PlayerCooldowns> players = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the time left on a cooldown.
+     *
+     * @param uniqueId The player
+     * @param commandId The command id
+     * @param now The current time in milliseconds
+     * @return The remaining time in milliseconds, or 0 if the cooldown isn't active
+     */
+    public long getRemaining(UUID uniqueId, int commandId, long now) {
+        PlayerCooldowns cooldowns = players.get(uniqueId);
+        if (cooldowns == null) return 0L;
+        return Math.max(cooldowns.get(commandId) - now, 0L);
+    }
+
+    public boolean isOnCooldown(UUID uniqueId, int commandId, long now) {
+        return getRemaining(uniqueId, commandId, now) > 0L;
+    }
+
+    /**
+     * Gets the raw expiry timestamp of a cooldown.
+     *
+     * @return The expiry in epoch milliseconds, or 0 if there is none
+     */
+    public long getExpiry(UUID uniqueId, int commandId) {
+        PlayerCooldowns cooldowns = players.get(uniqueId);
+        return cooldowns != null ? cooldowns.get(commandId) : 0L;
+    }
+
+    /**
+     * Starts or replaces a cooldown.
+     *
+     * @param uniqueId The player
+     * @param commandId The command id
+     * @param expiresAt The expiry in epoch milliseconds
+     */
+    public void start(UUID uniqueId, int commandId, long expiresAt) {
+        // compute() holds the bin lock, so a concurrent purge can never drop the entry being written to
+        players.compute(uniqueId, (key, cooldowns) -> {
+            if (cooldowns == null) cooldowns = new PlayerCooldowns();
+            cooldowns.set(commandId, expiresAt);
+            return cooldowns;
+        });
+    }
+
+    /**
+     * Clears a single cooldown.
+     */
+    public void clear(UUID uniqueId, int commandId) {
+        players.computeIfPresent(uniqueId, (key, cooldowns) -> {
+            cooldowns.set(commandId, 0L);
+            return cooldowns.isEmpty() ? null : cooldowns;
+        });
+    }
+
+    /**
+     * Drops the expired cooldowns of a player, releasing the player's state if nothing is left.
+     * Active cooldowns are kept, otherwise reconnecting would reset them.
+     *
+     * @param uniqueId The player
+     * @param now The current time in milliseconds
+     * @return true if the player no longer holds any state
+     */
+    public boolean release(UUID uniqueId, long now) {
+        return players.computeIfPresent(uniqueId, (key, cooldowns) -> cooldowns.purge(now) ? null : cooldowns) == null;
+    }
+
+    /**
+     * Drops every expired cooldown and releases players that have none left.
+     *
+     * @param now The current time in milliseconds
+     * @return The amount of players released
+     */
+    public int purgeExpired(long now) {
+        int released = 0;
+        for (UUID uniqueId : players.keySet()) {
+            if (release(uniqueId, now)) released++;
+        }
+        return released;
+    }
+
+    /**
+     * @return The amount of players that currently hold state in the store
+     */
+    public int size() {
+        return players.size();
+    }
+
+    public void clearAll() {
+        players.clear();
+    }
+
+    /**
+     * Expiry timestamps of one player. Only mutated under the owning map's bin lock,
+     * the volatile array reference keeps lock-free reads safe while it grows.
+     */
+    private static final class PlayerCooldowns {
+        private static final long[] NONE = new long[0];
+
+        private volatile long[] expiries = NONE;
+
+        long get(int commandId) {
+            long[] current = expiries;
+            return commandId < current.length ? current[commandId] : 0L;
+        }
+
+        void set(int commandId, long expiresAt) {
+            long[] current = expiries;
+            if (commandId >= current.length) {
+                if (expiresAt == 0L) return;
+                current = Arrays.copyOf(current, Math.max(commandId + 1, current.length * 2));
+            }
+            current[commandId] = expiresAt;
+            expiries = current;
+        }
+
+        boolean isEmpty() {
+            for (long expiry : expiries) {
+                if (expiry != 0L) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Zeroes the expired entries.
+         *
+         * @return true if no active cooldown is left
+         */
+        boolean purge(long now) {
+            long[] current = expiries;
+            boolean empty = true;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == 0L) continue;
+                if (current[i] <= now) {
+                    current[i] = 0L;
+                } else {
+                    empty = false;
+                }
+            }
+            return empty;
+        }
+    }
+}
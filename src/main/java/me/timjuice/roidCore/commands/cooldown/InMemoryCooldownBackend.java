@@ -0,0 +1,47 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reference {@link CooldownBackend} that keeps everything in memory.
+ * One instance can be shared by several managers or plugins in the same JVM to try out cooldown sharing
+ * without any external service.
+ */
+public class InMemoryCooldownBackend implements CooldownBackend {
+    private final Map<UUID, Map<Long, Long>> cooldowns = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Map<Long, Long>> load(UUID uniqueId) {
+        Map<Long, Long> stored = cooldowns.get(uniqueId);
+        if (stored == null) return CompletableFuture.completedFuture(Collections.emptyMap());
+
+        long now = System.currentTimeMillis();
+        Map<Long, Long> active = new HashMap<>();
+        synchronized (stored) {
+            stored.values().removeIf(expiresAt -> expiresAt <= now);
+            active.putAll(stored);
+        }
+        return CompletableFuture.completedFuture(active);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeBatch(List<CooldownEntry> entries) {
+        for (CooldownEntry entry : entries) {
+            Map<Long, Long> stored = cooldowns.computeIfAbsent(entry.uniqueId(), k -> new HashMap<>());
+            synchronized (stored) {
+                if (entry.expiresAt() == 0L) {
+                    stored.remove(entry.key());
+                } else {
+                    stored.put(entry.key(), entry.expiresAt());
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
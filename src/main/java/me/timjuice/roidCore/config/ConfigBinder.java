@@ -0,0 +1,349 @@
+package me.timjuice.roidCore.config;
+
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import me.timjuice.roidCore.utils.TimeUtil;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Binds a config section onto a record or a class once, so reading a value afterwards is a plain field access
+ * instead of a path lookup through the config.
+ * <p>
+ * Every record component, or every non-static, non-transient field of a class, is read from the key named after it in
+ * kebab-case, see {@link ConfigValue} to customize this. The binder of a type is built once: the coercion of every
+ * value is picked by its type and the constructor and field setters are resolved to method handles, so binding
+ * doesn't reflect. Supported types are strings, primitives and their wrappers, enums, {@link Duration}s (seconds or
+ * "1h30m"), lists of these, nested records bound from subsections, and anything the config already deserialized,
+ * e.g. an ItemStack.
+ * </p>
+ * <p>
+ * Invalid values are logged and replaced by their default like {@link ConfigLoader} does. For records the default is
+ * {@link ConfigValue#defaultValue()}, or zero, an empty string or list, or a record bound from an empty section.
+ * Fields of classes keep their initial value. Missing required values fail the whole binding.
+ * </p>
+ * <pre>{@code
+ * public record HomeSettings(
+ *     @ConfigValue(defaultValue = "3", min = 0) int maxHomes,
+ *     @ConfigValue(defaultValue = "5s") Duration teleportDelay,
+ *     @ConfigValue(colored = true) String teleportMessage
+ * ) {}
+ *
+ * HomeSettings settings = new ConfigLoader(plugin, file).bind("homes", HomeSettings.class);
+ * }</pre>
+ *
+ * @param <T> The type that is bound
+ */
+public final class ConfigBinder<T> {
+    private static final ClassValue<ConfigBinder<?>> BINDERS = new ClassValue<>() {
+        @Override
+        protected ConfigBinder<?> computeValue(Class<?> type) {
+            return new ConfigBinder<>(type);
+        }
+    };
+    private static final Pattern DURATION = Pattern.compile("(\\d+[wdhms])+");
+
+    private final Class<T> type;
+    private final boolean record;
+    private final Slot[] slots;
+    // (Object[]) -> T for records, () -> T for classes
+    private final MethodHandle constructor;
+
+    private ConfigBinder(Class<T> type) {
+        this.type = type;
+        this.record = type.isRecord();
+
+        List<Slot> slotList = new ArrayList<>();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            if (record) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    parameterTypes[i] = component.getType();
+                    slotList.add(new Slot(component.getName(), component.getType(), component.getGenericType(),
+                            component.getAnnotation(ConfigValue.class), null, true));
+                }
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asSpreader(Object[].class, parameterTypes.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } else {
+                for (Field field : type.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                    if (Modifier.isFinal(modifiers)) {
+                        throw new IllegalArgumentException("Field " + field.getName() + " is final, bind a record instead");
+                    }
+                    MethodHandle setter = lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    slotList.add(new Slot(field.getName(), field.getType(), field.getGenericType(),
+                            field.getAnnotation(ConfigValue.class), setter, false));
+                }
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            }
+        } catch (NoSuchMethodException | IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Can't bind " + type.getName() + ": " + e.getMessage(), e);
+        }
+        this.slots = slotList.toArray(new Slot[0]);
+    }
+
+    /**
+     * Gets the binder of a type, building it on first use.
+     *
+     * @param type A record, or a class with a no-argument constructor and non-final fields
+     * @return The binder of the type
+     * @throws IllegalArgumentException If the type can't be bound
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ConfigBinder<T> of(Class<T> type) {
+        return (ConfigBinder<T>) BINDERS.get(type);
+    }
+
+    /**
+     * Binds a section, logging invalid values and using their defaults instead.
+     *
+     * @param plugin The plugin to log warnings for
+     * @param section The section to read, null to use all defaults
+     * @return A new instance holding the values
+     * @throws IllegalStateException If required values are missing
+     */
+    public T bind(Plugin plugin, ConfigurationSection section) {
+        Object[] values = record ? new Object[slots.length] : null;
+        Object instance = record ? null : construct();
+        List<String> missing = null;
+
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            Object raw = section != null ? section.get(slot.key) : null;
+            Object value = null;
+            boolean valid = false;
+
+            if (raw != null) {
+                try {
+                    value = slot.coerce(plugin, raw);
+                    valid = true;
+                } catch (IllegalArgumentException e) {
+                    ConsoleLogger.warning(plugin, "Invalid value at path: " + pathOf(section, slot.key) + " (" + e.getMessage() + "), using default value");
+                }
+            } else if (slot.required) {
+                if (missing == null) missing = new ArrayList<>();
+                missing.add(pathOf(section, slot.key));
+            }
+
+            if (record) {
+                values[i] = valid ? value : slot.fallback(plugin);
+            } else if (valid) {
+                set(slot, instance, value);
+            }
+        }
+
+        if (missing != null) {
+            throw new IllegalStateException("Missing required config values for " + type.getSimpleName() + ": " + String.join(", ", missing));
+        }
+        return record ? construct(values) : type.cast(instance);
+    }
+
+    private Object construct() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create " + type.getName(), e);
+        }
+    }
+
+    private T construct(Object[] values) {
+        try {
+            return type.cast((Object) constructor.invokeExact(values));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create " + type.getName(), e);
+        }
+    }
+
+    private static void set(Slot slot, Object instance, Object value) {
+        try {
+            slot.setter.invokeExact(instance, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not set " + slot.key, e);
+        }
+    }
+
+    private static String pathOf(ConfigurationSection section, String key) {
+        String parent = section != null ? section.getCurrentPath() : null;
+        return parent == null || parent.isEmpty() ? key : parent + "." + key;
+    }
+
+    private static String toKebabCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) builder.append('-');
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Turns a raw config value into the bound type, throwing an IllegalArgumentException if it can't.
+     */
+    private interface Coercer {
+        Object coerce(Plugin plugin, Object raw);
+    }
+
+    private static final class Slot {
+        private final String key;
+        private final Class<?> type;
+        private final Coercer coercer;
+        private final MethodHandle setter; // Null for record components
+        private final boolean required;
+        private final double min;
+        private final double max;
+        private final Object defaultValue;
+
+        private Slot(String name, Class<?> type, Type genericType, ConfigValue options, MethodHandle setter, boolean record) {
+            this.key = options != null && !options.path().isEmpty() ? options.path() : toKebabCase(name);
+            this.type = type;
+            this.coercer = coercerFor(type, genericType, options != null && options.colored());
+            this.setter = setter;
+            this.required = options != null && options.required();
+            this.min = options != null ? options.min() : Double.NEGATIVE_INFINITY;
+            this.max = options != null ? options.max() : Double.POSITIVE_INFINITY;
+
+            // Parsed once here, so a broken default fails when the binder is built rather than when it's used
+            if (record && options != null && !options.defaultValue().isEmpty()) {
+                try {
+                    this.defaultValue = coercer.coerce(null, options.defaultValue());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid default value of " + name + ": " + e.getMessage(), e);
+                }
+            } else {
+                this.defaultValue = record && !type.isRecord() ? emptyValue(type) : null;
+            }
+        }
+
+        private Object coerce(Plugin plugin, Object raw) {
+            Object value = coercer.coerce(plugin, raw);
+            if (value instanceof Number number && (number.doubleValue() < min || number.doubleValue() > max)) {
+                throw new IllegalArgumentException(value + " is not between " + min + " and " + max);
+            }
+            return value;
+        }
+
+        // The value of a record component that is missing or invalid
+        private Object fallback(Plugin plugin) {
+            if (defaultValue == null && type.isRecord()) {
+                return ConfigBinder.of(type).bind(plugin, null);
+            }
+            return defaultValue;
+        }
+
+        private static Object emptyValue(Class<?> type) {
+            if (type.isPrimitive()) return Array.get(Array.newInstance(type, 1), 0);
+            if (type == String.class) return "";
+            if (type == List.class) return List.of();
+            if (type == Duration.class) return Duration.ZERO;
+            return null;
+        }
+    }
+
+    private static Coercer coercerFor(Class<?> type, Type genericType, boolean colored) {
+        if (type == String.class) {
+            return (plugin, raw) -> {
+                if (raw instanceof ConfigurationSection) throw new IllegalArgumentException("expected a string, got a section");
+                String string = raw.toString();
+                return colored ? ChatColor.translateAlternateColorCodes('&', string) : string;
+            };
+        }
+        if (type == int.class || type == Integer.class) {
+            return (plugin, raw) -> raw instanceof Number number ? number.intValue() : Integer.parseInt(raw.toString().trim());
+        }
+        if (type == long.class || type == Long.class) {
+            return (plugin, raw) -> raw instanceof Number number ? number.longValue() : Long.parseLong(raw.toString().trim());
+        }
+        if (type == double.class || type == Double.class) {
+            return (plugin, raw) -> raw instanceof Number number ? number.doubleValue() : Double.parseDouble(raw.toString().trim());
+        }
+        if (type == float.class || type == Float.class) {
+            return (plugin, raw) -> raw instanceof Number number ? number.floatValue() : Float.parseFloat(raw.toString().trim());
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return (plugin, raw) -> {
+                if (raw instanceof Boolean bool) return bool;
+                String string = raw.toString().trim();
+                if (string.equalsIgnoreCase("true")) return true;
+                if (string.equalsIgnoreCase("false")) return false;
+                throw new IllegalArgumentException("expected true or false, got " + string);
+            };
+        }
+        if (type == Duration.class) {
+            return (plugin, raw) -> {
+                if (raw instanceof Number number) return Duration.ofSeconds(number.longValue());
+                String string = raw.toString().trim();
+                if (!DURATION.matcher(string).matches()) throw new IllegalArgumentException("expected a duration like 1h30m, got " + string);
+                return Duration.ofSeconds(TimeUtil.parseDurationToSeconds(string));
+            };
+        }
+        if (type.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return (plugin, raw) -> {
+                Object constant = constants.get(raw.toString().trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+                if (constant == null) throw new IllegalArgumentException("expected one of " + constants.keySet() + ", got " + raw);
+                return constant;
+            };
+        }
+        if (type == List.class) {
+            if (!(genericType instanceof ParameterizedType parameterized)) {
+                throw new IllegalArgumentException("List needs an element type");
+            }
+            Type elementType = parameterized.getActualTypeArguments()[0];
+            Class<?> elementClass = elementType instanceof ParameterizedType nested
+                    ? (Class<?>) nested.getRawType()
+                    : (Class<?>) elementType;
+            Coercer element = coercerFor(elementClass, elementType, colored);
+            return (plugin, raw) -> {
+                if (!(raw instanceof List<?> list)) return List.of(element.coerce(plugin, raw)); // A single value is a list of one
+                List<Object> values = new ArrayList<>(list.size());
+                for (Object item : list) {
+                    if (item != null) values.add(element.coerce(plugin, item));
+                }
+                return List.copyOf(values);
+            };
+        }
+        if (type.isRecord()) {
+            return (plugin, raw) -> {
+                if (!(raw instanceof ConfigurationSection section)) throw new IllegalArgumentException("expected a section");
+                return ConfigBinder.of(type).bind(plugin, section);
+            };
+        }
+        // E.g. an ItemStack or Location, which the config deserializes itself
+        return (plugin, raw) -> {
+            if (!type.isInstance(raw)) throw new IllegalArgumentException("expected a " + type.getSimpleName() + ", got " + raw);
+            return raw;
+        };
+    }
+}
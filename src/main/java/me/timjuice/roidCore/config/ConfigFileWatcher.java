@@ -0,0 +1,144 @@
+package me.timjuice.roidCore.config;
+
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config files and runs a reload callback when one of them changes on disk.
+ * <p>
+ * The callbacks run on the watcher's own thread, never on the main thread, so they should parse the file into a new
+ * immutable snapshot and publish it with a single volatile write. Editors often write a file in several steps, so
+ * changes are collected until the directory has been quiet for {@value #SETTLE_MILLIS}ms and every changed file is
+ * reloaded once.
+ * </p>
+ * <pre>{@code
+ * ConfigFileWatcher watcher = new ConfigFileWatcher(plugin);
+ * watcher.watch(messageConfig.getConfigFile(), messageConfig::reloadConfig);
+ * // In onDisable
+ * watcher.close();
+ * }</pre>
+ */
+public class ConfigFileWatcher implements AutoCloseable {
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Plugin plugin;
+    private final Map<Path, Runnable> callbacks = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigFileWatcher(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts watching a file, starting the watcher thread on first use.
+     *
+     * @param file The config file
+     * @param onChange Reloads the file, called off the main thread
+     */
+    public synchronized void watch(File file, Runnable onChange) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        Path directory = path.getParent();
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                thread = Thread.ofPlatform()
+                        .name(plugin.getName() + " config watcher")
+                        .daemon()
+                        .start(this::run);
+            }
+            if (!directories.containsValue(directory)) {
+                WatchKey key = directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+                directories.put(key, directory);
+            }
+            callbacks.put(path, onChange);
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Could not watch " + file.getName() + " for changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops watching a file. The directory stays registered, events for it are just ignored.
+     */
+    public void unwatch(File file) {
+        callbacks.remove(file.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Stops the watcher thread. Reloads already running are allowed to finish.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService == null) return;
+        try {
+            watchService.close(); // Wakes the thread up with a ClosedWatchServiceException
+        } catch (IOException e) {
+            ConsoleLogger.warning(plugin, "Could not close the config watcher: " + e.getMessage());
+        }
+        thread.interrupt();
+        watchService = null;
+        thread = null;
+        directories.clear();
+    }
+
+    private void run() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(service.take(), changed);
+
+                // Wait for the writes to settle, merging the events of one save into a single reload
+                WatchKey key;
+                while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+
+                for (Path path : changed) {
+                    Runnable callback = callbacks.get(path);
+                    if (callback == null) continue;
+                    try {
+                        callback.run();
+                    } catch (RuntimeException e) {
+                        ConsoleLogger.error(plugin, "Could not reload " + path.getFileName() + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) continue;
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, reload everything in the directory
+                for (Path path : callbacks.keySet()) {
+                    if (directory.equals(path.getParent())) changed.add(path);
+                }
+                continue;
+            }
+            changed.add(directory.resolve((Path) event.context()));
+        }
+        key.reset();
+    }
+}
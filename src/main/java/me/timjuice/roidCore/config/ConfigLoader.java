@@ -27,6 +27,15 @@ public class ConfigLoader {
         config = YamlConfiguration.loadConfiguration(configFile);
     }
 
+    /**
+     * Creates a loader for a config that was already parsed, e.g. strictly so a broken file can be rejected.
+     */
+    public ConfigLoader(JavaPlugin plugin, File configFile, FileConfiguration config) {
+        this.plugin = plugin;
+        this.configFile = configFile;
+        this.config = config;
+    }
+
     /**
      * Safely loads an integer from the config, with validation and default value support.
      */
@@ -254,6 +263,20 @@ public class ConfigLoader {
         return defaultItem;
     }
 
+    /**
+     * Binds the whole config onto a record or class, see {@link ConfigBinder}.
+     */
+    public <T> T bind(Class<T> type) {
+        return ConfigBinder.of(type).bind(plugin, config);
+    }
+
+    /**
+     * Binds a section of the config onto a record or class, using all defaults if the section is missing.
+     */
+    public <T> T bind(String path, Class<T> type) {
+        return ConfigBinder.of(type).bind(plugin, config.getConfigurationSection(path));
+    }
+
     public void saveConfigAsync() {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
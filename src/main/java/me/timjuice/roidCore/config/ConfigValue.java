@@ -0,0 +1,47 @@
+package me.timjuice.roidCore.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Customizes how a record component or field is bound by a {@link ConfigBinder}.
+ * Components and fields without it are bound too, using the defaults below.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface ConfigValue {
+    /**
+     * @return The key in the section, the name in kebab-case if empty, e.g. "maxHomes" becomes "max-homes"
+     */
+    String path() default "";
+
+    /**
+     * The value used when the key is missing or invalid, coerced like a value from the file.
+     * Only used for records, fields of classes keep their initial value instead.
+     *
+     * @return The default value, none if empty
+     */
+    String defaultValue() default "";
+
+    /**
+     * @return true if binding fails when the key is missing
+     */
+    boolean required() default false;
+
+    /**
+     * @return The smallest allowed number
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * @return The largest allowed number
+     */
+    double max() default Double.POSITIVE_INFINITY;
+
+    /**
+     * @return true if '&' color codes of strings are translated
+     */
+    boolean colored() default false;
+}
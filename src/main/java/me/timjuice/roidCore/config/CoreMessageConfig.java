@@ -3,6 +3,7 @@ package me.timjuice.roidCore.config;
 import lombok.Getter;
 import me.timjuice.roidCore.RoidCore;
 import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -12,17 +13,11 @@ import java.io.IOException;
 @Getter
 public class CoreMessageConfig {
     protected final RoidCore roidPlugin;
-    protected File configFile;
-    protected FileConfiguration config;
-
-    private String pluginPrefix;
-    private String helpMessageHeader;
-    private String helpCategoryHeader;
-    private String noPermissionMessage;
-    private String onlyPlayersCommandMessage;
-    private String invalidCommandMessage;
-    private String helpCommandGroupFormat;
-    private String helpIndividualSubcommandFormat;
+    protected final File configFile;
+    protected volatile FileConfiguration config;
+
+    // Every message, swapped as a whole on reload so readers never see a mix of old and new values
+    private volatile Messages messages;
 
     public CoreMessageConfig(RoidCore roidPlugin) {
         this.roidPlugin = roidPlugin;
@@ -46,6 +41,12 @@ public class CoreMessageConfig {
         config.addDefault("invalid-command-message", "&cThat command doesn't exist! Type /{PLUGIN_NAME} for help.");
         config.addDefault("help-command-group-format", "&a/{BASE_CMD} help {CMD_GROUP} &f- &7Shows {CMD_GROUP} commands");
         config.addDefault("help-individual-subcommand-format", "&a/{BASE_CMD} {SUB_CMD_NAME} &f- &7{SUB_CMD_DESCRIPTION}");
+        config.addDefault("help-page-footer", "&7Page &a{PAGE}&7/&a{PAGES} &8- &7Next: &a/{BASE_CMD} help {NEXT_PAGE}");
+        config.addDefault("help-unknown-group-message", "&cThere is no help for '{CMD_GROUP}'. Type /{BASE_CMD} help for all commands.");
+        config.addDefault("async-command-failed-message", "&cSomething went wrong while running this command.");
+        config.addDefault("command-rate-limited-message", "&cYou're sending commands too quickly, slow down!");
+        config.addDefault("command-input-too-long-message", "&cThat command is too long!");
+        config.addDefault("did-you-mean-message", "&7Did you mean &a{SUGGESTIONS}&7?");
         config.options().copyDefaults(true);
 
         // If the file doesn't exist, save defaults and create the file
@@ -73,18 +74,175 @@ public class CoreMessageConfig {
      * Load and validate all configuration options.
      */
     private void loadDefaultConfig() {
-        ConfigLoader configLoader = new ConfigLoader(roidPlugin, new File(roidPlugin.getDataFolder(), "messages.yml"));
-        // Load each configuration value with validation
-        pluginPrefix = configLoader.getColoredString("message-prefix");
-        helpMessageHeader = configLoader.getColoredString("help-message-header");
-        helpCategoryHeader = configLoader.getColoredString("help-category-header");
-        noPermissionMessage = configLoader.getColoredString("no-permission-message");
-        onlyPlayersCommandMessage = configLoader.getColoredString("only-players-command");
-        invalidCommandMessage = configLoader.getColoredString("invalid-command-message");
-        helpCommandGroupFormat = configLoader.getColoredString("help-command-group-format");
-        helpIndividualSubcommandFormat = configLoader.getColoredString("help-individual-subcommand-format");
+        messages = new Messages(new ConfigLoader(roidPlugin, configFile));
 
         // Log successful loading
         ConsoleLogger.success(roidPlugin, "Configuration successfully loaded.");
     }
+
+    /**
+     * Reads messages.yml again and swaps in the new messages. Safe to call off the main thread, e.g. from a
+     * {@link ConfigFileWatcher}. If the file can't be parsed the current messages are kept, and messages missing
+     * from the file fall back to their defaults.
+     */
+    public void reloadConfig() {
+        YamlConfiguration reloaded = new YamlConfiguration();
+        try {
+            reloaded.load(configFile);
+        } catch (IOException | InvalidConfigurationException e) {
+            ConsoleLogger.warning(roidPlugin, "Could not reload messages.yml, keeping the current messages: " + e.getMessage());
+            return;
+        }
+        reloaded.setDefaults(config.getDefaults());
+
+        messages = new Messages(new ConfigLoader(roidPlugin, configFile, reloaded));
+        config = reloaded;
+        ConsoleLogger.success(roidPlugin, "Messages reloaded.");
+    }
+
+    public String getPluginPrefix() {
+        return messages.getPluginPrefix();
+    }
+
+    public String getHelpMessageHeader() {
+        return messages.getHelpMessageHeader();
+    }
+
+    public String getHelpCategoryHeader() {
+        return messages.getHelpCategoryHeader();
+    }
+
+    public String getNoPermissionMessage() {
+        return messages.getNoPermissionMessage();
+    }
+
+    public String getOnlyPlayersCommandMessage() {
+        return messages.getOnlyPlayersCommandMessage();
+    }
+
+    public String getInvalidCommandMessage() {
+        return messages.getInvalidCommandMessage();
+    }
+
+    public String getHelpCommandGroupFormat() {
+        return messages.getHelpCommandGroupFormat();
+    }
+
+    public String getHelpIndividualSubcommandFormat() {
+        return messages.getHelpIndividualSubcommandFormat();
+    }
+
+    public String getHelpPageFooter() {
+        return messages.getHelpPageFooter();
+    }
+
+    public String getHelpUnknownGroupMessage() {
+        return messages.getHelpUnknownGroupMessage();
+    }
+
+    public String getAsyncCommandFailedMessage() {
+        return messages.getAsyncCommandFailedMessage();
+    }
+
+    public String getCommandRateLimitedMessage() {
+        return messages.getCommandRateLimitedMessage();
+    }
+
+    public String getCommandInputTooLongMessage() {
+        return messages.getCommandInputTooLongMessage();
+    }
+
+    public String getDidYouMeanMessage() {
+        return messages.getDidYouMeanMessage();
+    }
+
+    public MessageTemplate getHelpMessageHeaderTemplate() {
+        return messages.getHelpMessageHeaderTemplate();
+    }
+
+    public MessageTemplate getHelpCategoryHeaderTemplate() {
+        return messages.getHelpCategoryHeaderTemplate();
+    }
+
+    public MessageTemplate getInvalidCommandTemplate() {
+        return messages.getInvalidCommandTemplate();
+    }
+
+    public MessageTemplate getHelpCommandGroupTemplate() {
+        return messages.getHelpCommandGroupTemplate();
+    }
+
+    public MessageTemplate getHelpIndividualSubcommandTemplate() {
+        return messages.getHelpIndividualSubcommandTemplate();
+    }
+
+    public MessageTemplate getHelpPageFooterTemplate() {
+        return messages.getHelpPageFooterTemplate();
+    }
+
+    public MessageTemplate getHelpUnknownGroupTemplate() {
+        return messages.getHelpUnknownGroupTemplate();
+    }
+
+    public MessageTemplate getDidYouMeanTemplate() {
+        return messages.getDidYouMeanTemplate();
+    }
+
+    /**
+     * Immutable snapshot of every message, with the placeholder messages compiled into templates.
+     */
+    @Getter
+    public static final class Messages {
+        private final String pluginPrefix;
+        private final String helpMessageHeader;
+        private final String helpCategoryHeader;
+        private final String noPermissionMessage;
+        private final String onlyPlayersCommandMessage;
+        private final String invalidCommandMessage;
+        private final String helpCommandGroupFormat;
+        private final String helpIndividualSubcommandFormat;
+        private final String helpPageFooter;
+        private final String helpUnknownGroupMessage;
+        private final String asyncCommandFailedMessage;
+        private final String commandRateLimitedMessage;
+        private final String commandInputTooLongMessage;
+        private final String didYouMeanMessage;
+
+        // Compiled messages with placeholders, the values are rendered in the order of the placeholders listed here
+        private final MessageTemplate helpMessageHeaderTemplate;       // PLUGIN_NAME
+        private final MessageTemplate helpCategoryHeaderTemplate;      // CATEGORY
+        private final MessageTemplate invalidCommandTemplate;          // PLUGIN_NAME
+        private final MessageTemplate helpCommandGroupTemplate;        // BASE_CMD, CMD_GROUP
+        private final MessageTemplate helpIndividualSubcommandTemplate; // BASE_CMD, SUB_CMD_NAME, SUB_CMD_DESCRIPTION
+        private final MessageTemplate helpPageFooterTemplate;          // PAGE, PAGES, BASE_CMD, NEXT_PAGE
+        private final MessageTemplate helpUnknownGroupTemplate;        // CMD_GROUP, BASE_CMD
+        private final MessageTemplate didYouMeanTemplate;              // SUGGESTIONS
+
+        private Messages(ConfigLoader configLoader) {
+            // Load each configuration value with validation
+            pluginPrefix = configLoader.getColoredString("message-prefix");
+            helpMessageHeader = configLoader.getColoredString("help-message-header");
+            helpCategoryHeader = configLoader.getColoredString("help-category-header");
+            noPermissionMessage = configLoader.getColoredString("no-permission-message");
+            onlyPlayersCommandMessage = configLoader.getColoredString("only-players-command");
+            invalidCommandMessage = configLoader.getColoredString("invalid-command-message");
+            helpCommandGroupFormat = configLoader.getColoredString("help-command-group-format");
+            helpIndividualSubcommandFormat = configLoader.getColoredString("help-individual-subcommand-format");
+            helpPageFooter = configLoader.getColoredString("help-page-footer");
+            helpUnknownGroupMessage = configLoader.getColoredString("help-unknown-group-message");
+            asyncCommandFailedMessage = configLoader.getColoredString("async-command-failed-message");
+            commandRateLimitedMessage = configLoader.getColoredString("command-rate-limited-message");
+            commandInputTooLongMessage = configLoader.getColoredString("command-input-too-long-message");
+            didYouMeanMessage = configLoader.getColoredString("did-you-mean-message");
+
+            helpMessageHeaderTemplate = MessageTemplate.compile(helpMessageHeader, "PLUGIN_NAME");
+            helpCategoryHeaderTemplate = MessageTemplate.compile(helpCategoryHeader, "CATEGORY");
+            invalidCommandTemplate = MessageTemplate.compile(invalidCommandMessage, "PLUGIN_NAME");
+            helpCommandGroupTemplate = MessageTemplate.compile(helpCommandGroupFormat, "BASE_CMD", "CMD_GROUP");
+            helpIndividualSubcommandTemplate = MessageTemplate.compile(helpIndividualSubcommandFormat, "BASE_CMD", "SUB_CMD_NAME", "SUB_CMD_DESCRIPTION");
+            helpPageFooterTemplate = MessageTemplate.compile(helpPageFooter, "PAGE", "PAGES", "BASE_CMD", "NEXT_PAGE");
+            helpUnknownGroupTemplate = MessageTemplate.compile(helpUnknownGroupMessage, "CMD_GROUP", "BASE_CMD");
+            didYouMeanTemplate = MessageTemplate.compile(didYouMeanMessage, "SUGGESTIONS");
+        }
+    }
 }
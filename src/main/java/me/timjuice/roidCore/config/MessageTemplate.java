@@ -0,0 +1,138 @@
+package me.timjuice.roidCore.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message with {@code {PLACEHOLDER}} slots, compiled once so rendering is a single pass.
+ * <p>
+ * The message is split into literal segments and placeholder slots when it's compiled. Rendering sums up the length,
+ * then appends every segment and value into one builder of exactly that size, instead of copying the whole message
+ * once per {@link String#replace} call. Messages without any of the placeholders render to the same cached string.
+ * Placeholders that weren't declared are kept as they are, like an unmatched {@code replace} would.
+ * </p>
+ * <pre>{@code
+ * MessageTemplate template = MessageTemplate.compile("&a/{BASE_CMD} {SUB_CMD_NAME}", "BASE_CMD", "SUB_CMD_NAME");
+ * String message = template.render("roidcore", "help");
+ * }</pre>
+ */
+public final class MessageTemplate {
+    private final String source;
+    private final String[] literals; // One more than there are slots
+    private final int[] slots;       // Index of the placeholder, and so of the value, of each slot
+    private final int placeholderCount;
+    private final int literalLength;
+
+    private MessageTemplate(String source, String[] literals, int[] slots, int placeholderCount) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.placeholderCount = placeholderCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles a message.
+     *
+     * @param message The message, with color codes already translated
+     * @param placeholders The names of the placeholders without braces, in the order their values are given to {@link #render}
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String message, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int literalStart = 0;
+        int open = message.indexOf('{');
+
+        while (open != -1) {
+            int close = message.indexOf('}', open + 1);
+            if (close == -1) break;
+
+            int placeholder = indexOf(placeholders, message, open + 1, close);
+            if (placeholder == -1) {
+                // Not one of ours, keep it as text and look for the next brace after this one
+                open = message.indexOf('{', open + 1);
+                continue;
+            }
+
+            literals.add(message.substring(literalStart, open));
+            slots.add(placeholder);
+            literalStart = close + 1;
+            open = message.indexOf('{', literalStart);
+        }
+        literals.add(message.substring(literalStart));
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new MessageTemplate(message, literals.toArray(new String[0]), slotArray, placeholders.length);
+    }
+
+    /**
+     * Compiles a message from a config, translating its color codes first.
+     *
+     * @param configLoader The loader of the config
+     * @param path The path of the message
+     * @param placeholders The names of the placeholders without braces
+     * @return The compiled template, empty if the path is missing
+     */
+    public static MessageTemplate load(ConfigLoader configLoader, String path, String... placeholders) {
+        return compile(configLoader.getColoredString(path), placeholders);
+    }
+
+    /**
+     * Renders the message.
+     *
+     * @param values The values of the placeholders, in the order they were declared when compiling
+     * @return The rendered message
+     */
+    public String render(Object... values) {
+        if (slots.length == 0) return source;
+        if (values.length < placeholderCount) {
+            throw new IllegalArgumentException("Expected " + placeholderCount + " values but got " + values.length);
+        }
+
+        // Size the builder exactly, so it never grows
+        String[] strings = new String[values.length];
+        int length = literalLength;
+        for (int slot : slots) {
+            if (strings[slot] == null) strings[slot] = String.valueOf(values[slot]);
+            length += strings[slot].length();
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]).append(strings[slots[i]]);
+        }
+        return builder.append(literals[slots.length]).toString();
+    }
+
+    /**
+     * @return true if the message contains none of its placeholders, so it always renders the same
+     */
+    public boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static int indexOf(String[] placeholders, String message, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i].length() == length && message.regionMatches(start, placeholders[i], 0, length)) return i;
+        }
+        return -1;
+    }
+}
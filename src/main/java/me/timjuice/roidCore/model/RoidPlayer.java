@@ -1,6 +1,8 @@
 package me.timjuice.roidCore.model;
 
 import lombok.NonNull;
+import me.timjuice.roidCore.RoidCore;
+import me.timjuice.roidCore.players.OnlinePlayerIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -34,6 +36,31 @@ public class RoidPlayer {
         return uniqueId;
     }
 
+    /**
+     * Gets the player's last known name from RoidCore's name index, without a profile lookup.
+     *
+     * @return The name, or null if the player was never seen by the server
+     */
+    public @Nullable String getName() {
+        Player online = getPlayer();
+        if (online != null) return online.getName();
+        return RoidCore.getInstance().getPlayerNameIndex().getName(uniqueId);
+    }
+
+    /**
+     * Creates a RoidPlayer from a name using RoidCore's name index, without a profile lookup.
+     *
+     * @param name The player name, case-insensitive
+     * @return The player, or null if the name isn't known to the server
+     */
+    public static @Nullable RoidPlayer fromName(@NonNull String name) {
+        Player online = OnlinePlayerIndex.getInstance().getExact(name);
+        if (online != null) return new RoidPlayer(online);
+
+        UUID uniqueId = RoidCore.getInstance().getPlayerNameIndex().getUniqueId(name);
+        return uniqueId != null ? new RoidPlayer(uniqueId) : null;
+    }
+
     public RoidPlayer msg(String message) {
         Player player = getPlayer();
         if (player != null && player.isOnline()) {
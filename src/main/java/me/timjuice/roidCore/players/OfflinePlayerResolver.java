@@ -0,0 +1,98 @@
+package me.timjuice.roidCore.players;
+
+import me.timjuice.roidCore.RoidCore;
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Resolves offline players by name without blocking the main thread.
+ * Names are answered from the {@link PlayerNameIndex} whenever possible. Only names the index has never seen
+ * fall back to {@code Bukkit.getOfflinePlayer(String)}, which may do a blocking profile lookup,
+ * so it runs on RoidCore's async executor and concurrent lookups of the same name share one request.
+ */
+public final class OfflinePlayerResolver {
+    private static final Map<String, CompletableFuture<OfflinePlayer>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private OfflinePlayerResolver() {
+    }
+
+    /**
+     * Resolves a player who has played on this server before.
+     *
+     * @param name The player name, case-insensitive
+     * @return A future completed with the player, or with null if nobody with that name has played before
+     */
+    public static CompletableFuture<OfflinePlayer> resolve(String name) {
+        // Online players and known names are answered without any lookup
+        OfflinePlayer known = resolveKnown(name);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+
+        PlayerNameIndex index = RoidCore.getInstance().getPlayerNameIndex();
+        if (index.isKnownMissing(name)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        CompletableFuture<OfflinePlayer> existing = IN_FLIGHT.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<OfflinePlayer> future = new CompletableFuture<>();
+        existing = IN_FLIGHT.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing; // Another caller started the same lookup in the meantime
+        }
+
+        try {
+            RoidCore.getInstance().getAsyncExecutor().execute(() -> {
+                try {
+                    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(name);
+                    if (offlinePlayer != null && offlinePlayer.hasPlayedBefore()) {
+                        index.record(offlinePlayer.getUniqueId(), offlinePlayer.getName() != null ? offlinePlayer.getName() : name);
+                        future.complete(offlinePlayer);
+                    } else {
+                        index.markMissing(name);
+                        future.complete(null);
+                    }
+                } catch (Throwable t) {
+                    ConsoleLogger.error(RoidCore.getInstance(), "Failed to look up offline player '" + name + "': " + t.getMessage());
+                    future.completeExceptionally(t);
+                } finally {
+                    IN_FLIGHT.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            IN_FLIGHT.remove(key, future);
+            future.completeExceptionally(e); // The plugin is shutting down
+        }
+        return future;
+    }
+
+    /**
+     * Resolves a player from the online players and the {@link PlayerNameIndex} only, never doing a profile lookup.
+     * Safe to call on the main thread.
+     *
+     * @param name The player name, case-insensitive
+     * @return The player, or null if the name is neither online nor in the index
+     */
+    public static OfflinePlayer resolveKnown(String name) {
+        Player online = OnlinePlayerIndex.getInstance().getExact(name);
+        if (online != null) {
+            return online;
+        }
+        UUID uniqueId = RoidCore.getInstance().getPlayerNameIndex().getUniqueId(name);
+        return uniqueId != null ? Bukkit.getOfflinePlayer(uniqueId) : null; // Lookups by UUID don't block
+    }
+}
@@ -0,0 +1,123 @@
+package me.timjuice.roidCore.players;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Case-insensitive index of the players currently online, shared by every player argument.
+ * <p>
+ * Names are folded to lowercase once when a player joins. Exact lookups are a single hash probe and prefix suggestions
+ * only walk the names that match, so neither scans every online player. The index is kept up to date by
+ * {@link PlayerListener} and can be read from any thread.
+ * </p>
+ */
+public final class OnlinePlayerIndex {
+    /**
+     * Hides players the sender can't see, e.g. vanished staff.
+     */
+    public static final BiPredicate<CommandSender, Player> CAN_SEE =
+        (sender, player) -> !(sender instanceof Player viewer) || viewer.canSee(player);
+
+    private static OnlinePlayerIndex instance;
+
+    private final Map<String, Player> byName = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Player> sortedByName = new ConcurrentSkipListMap<>();
+    private volatile BiPredicate<CommandSender, Player> visibilityFilter;
+
+    private OnlinePlayerIndex() {
+    }
+
+    public static synchronized OnlinePlayerIndex getInstance() {
+        if (instance == null) {
+            instance = new OnlinePlayerIndex();
+        }
+        return instance;
+    }
+
+    public void add(Player player) {
+        String folded = player.getName().toLowerCase(Locale.ROOT);
+        byName.put(folded, player);
+        sortedByName.put(folded, player);
+    }
+
+    public void addAll(Collection<? extends Player> players) {
+        for (Player player : players) {
+            add(player);
+        }
+    }
+
+    public void remove(Player player) {
+        // Only removes the entry if it still belongs to this player
+        String folded = player.getName().toLowerCase(Locale.ROOT);
+        byName.remove(folded, player);
+        sortedByName.remove(folded, player);
+    }
+
+    /**
+     * Gets an online player by their exact name, ignoring case.
+     *
+     * @param name The name of the player
+     * @return The player, or null if no player with that name is online
+     */
+    public Player getExact(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the names of online players starting with the prefix, ignoring case.
+     * Players hidden from the sender by the {@link #setVisibilityFilter(BiPredicate) visibility filter} are left out.
+     *
+     * @param sender The sender the names are suggested to
+     * @param prefix The input typed so far
+     * @return A new list of the matching names
+     */
+    public List<String> suggest(CommandSender sender, String prefix) {
+        return suggest(sender, prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets at most {@code limit} names of online players starting with the prefix, ignoring case.
+     *
+     * @param sender The sender the names are suggested to
+     * @param prefix The input typed so far
+     * @param limit The maximum amount of names
+     * @return A new list of the matching names
+     */
+    public List<String> suggest(CommandSender sender, String prefix, int limit) {
+        String folded = prefix.toLowerCase(Locale.ROOT);
+        BiPredicate<CommandSender, Player> filter = visibilityFilter;
+        List<String> names = new ArrayList<>();
+
+        // Names are sorted, so the matching ones are contiguous from the prefix on
+        for (Map.Entry<String, Player> entry : sortedByName.tailMap(folded).entrySet()) {
+            if (names.size() >= limit || !entry.getKey().startsWith(folded)) break;
+            Player player = entry.getValue();
+            if (filter == null || filter.test(sender, player)) {
+                names.add(player.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Sets the filter deciding which players are suggested to a sender, e.g. {@link #CAN_SEE}.
+     *
+     * @param visibilityFilter The filter, or null to suggest every online player
+     */
+    public void setVisibilityFilter(BiPredicate<CommandSender, Player> visibilityFilter) {
+        this.visibilityFilter = visibilityFilter;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+}
@@ -0,0 +1,211 @@
+package me.timjuice.roidCore.players;
+
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-player cache of permission decisions for the nodes RoidCore checks.
+ * <p>
+ * Nodes are interned into small integer ids once, and every player gets a byte per node: unknown, denied or granted.
+ * A player's decisions are dropped when they quit or change worlds, when their op status differs from the one the
+ * decisions were made with, when LuckPerms recalculates their permissions and, for permission plugins that can't
+ * notify us, after a maximum age of one second.
+ * </p>
+ */
+public final class PermissionCache {
+    private static final byte UNKNOWN = 0;
+    private static final byte DENIED = 1;
+    private static final byte GRANTED = 2;
+    // Without notifications a revoked permission is honored this long, so it only absorbs bursts like tab completion
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long NOTIFIED_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // Node ids are shared by every cache, so they can be resolved before a plugin is known
+    private static final Map<String, Integer> NODE_IDS = new ConcurrentHashMap<>();
+    private static volatile String[] nodes = new String[0];
+
+    private final Map<UUID, Decisions> players = new ConcurrentHashMap<>();
+    private volatile long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+
+    /**
+     * Interns a permission node.
+     *
+     * @param node The permission node
+     * @return The id of the node, stable for the lifetime of the JVM
+     */
+    public static int nodeId(String node) {
+        Integer id = NODE_IDS.get(node);
+        if (id != null) return id;
+
+        synchronized (NODE_IDS) {
+            id = NODE_IDS.get(node);
+            if (id != null) return id;
+
+            String[] current = nodes;
+            String[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = node;
+            nodes = grown; // Published before the id, so a reader never sees an id without its node
+            NODE_IDS.put(node, current.length);
+            return current.length;
+        }
+    }
+
+    /**
+     * Checks whether the sender is op or has the permission, the way RoidCore gates commands.
+     *
+     * @param sender The sender
+     * @param node The permission node
+     * @return true if the sender is allowed
+     */
+    public boolean allows(CommandSender sender, String node) {
+        return allows(sender, nodeId(node));
+    }
+
+    /**
+     * Checks whether the sender is op or has the permission with the given id.
+     *
+     * @param sender The sender
+     * @param nodeId The id from {@link #nodeId(String)}
+     * @return true if the sender is allowed
+     */
+    public boolean allows(CommandSender sender, int nodeId) {
+        if (!(sender instanceof Player player)) {
+            return sender.isOp() || sender.hasPermission(nodes[nodeId]);
+        }
+
+        // Op status can't be observed through an event, so every decision is tied to the op status it was made with
+        boolean op = player.isOp();
+        if (op) return true;
+        return has(player, decisions(player, false), nodeId);
+    }
+
+    /**
+     * Checks whether the sender has the permission, without the op override.
+     *
+     * @param sender The sender
+     * @param node The permission node
+     * @return true if the permission is granted
+     */
+    public boolean has(CommandSender sender, String node) {
+        int nodeId = nodeId(node);
+        if (!(sender instanceof Player player)) {
+            return sender.hasPermission(node);
+        }
+        return has(player, decisions(player, player.isOp()), nodeId);
+    }
+
+    /**
+     * Drops every cached decision of a player.
+     */
+    public void invalidate(UUID uniqueId) {
+        players.remove(uniqueId);
+    }
+
+    public void invalidateAll() {
+        players.clear();
+    }
+
+    /**
+     * Sets how long decisions are kept at most, covering permission changes nothing notifies the cache about.
+     * This is how long a revoked permission can still be honored, one second by default and five minutes
+     * once {@link #hookLuckPerms(Plugin) LuckPerms} notifies the cache.
+     */
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Subscribes to LuckPerms' {@code UserDataRecalculateEvent} through reflection if LuckPerms is installed,
+     * and keeps decisions for much longer after that.
+     *
+     * @param plugin The plugin owning the subscription
+     * @return true if the hook is active
+     */
+    public boolean hookLuckPerms(Plugin plugin) {
+        if (Bukkit.getPluginManager().getPlugin("LuckPerms") == null) return false;
+
+        try {
+            Object api = Class.forName("net.luckperms.api.LuckPermsProvider").getMethod("get").invoke(null);
+            Class<?> eventBusClass = Class.forName("net.luckperms.api.event.EventBus");
+            Object eventBus = Class.forName("net.luckperms.api.LuckPerms").getMethod("getEventBus").invoke(api);
+            Class<?> eventClass = Class.forName("net.luckperms.api.event.user.UserDataRecalculateEvent");
+            Method getUser = eventClass.getMethod("getUser");
+            Method getUniqueId = Class.forName("net.luckperms.api.model.user.User").getMethod("getUniqueId");
+
+            // Fired on LuckPerms' own threads, invalidating is thread-safe
+            Consumer<Object> handler = event -> {
+                try {
+                    invalidate((UUID) getUniqueId.invoke(getUser.invoke(event)));
+                } catch (ReflectiveOperationException e) {
+                    invalidateAll();
+                }
+            };
+            eventBusClass.getMethod("subscribe", Object.class, Class.class, Consumer.class).invoke(eventBus, plugin, eventClass, handler);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ConsoleLogger.warning(plugin, "Could not hook into LuckPerms, permission decisions are cached briefly: " + e);
+            return false;
+        }
+
+        maxAgeMillis = NOTIFIED_MAX_AGE_MILLIS;
+        ConsoleLogger.info(plugin, "Hooked into LuckPerms for permission cache invalidation.");
+        return true;
+    }
+
+    private Decisions decisions(Player player, boolean op) {
+        long now = System.currentTimeMillis();
+        Decisions decisions = players.get(player.getUniqueId());
+        if (decisions == null || decisions.op != op || now - decisions.createdAt > maxAgeMillis) {
+            decisions = new Decisions(op, now);
+            players.put(player.getUniqueId(), decisions);
+        }
+        return decisions;
+    }
+
+    private static boolean has(Player player, Decisions decisions, int nodeId) {
+        byte state = decisions.get(nodeId);
+        if (state == UNKNOWN) {
+            state = player.hasPermission(nodes[nodeId]) ? GRANTED : DENIED;
+            decisions.set(nodeId, state);
+        }
+        return state == GRANTED;
+    }
+
+    /**
+     * Decisions of one player. Racing writers may lose a decision, which only costs a repeated lookup.
+     */
+    private static final class Decisions {
+        private final boolean op;
+        private final long createdAt;
+        private volatile byte[] states = new byte[0];
+
+        private Decisions(boolean op, long createdAt) {
+            this.op = op;
+            this.createdAt = createdAt;
+        }
+
+        private byte get(int nodeId) {
+            byte[] current = states;
+            return nodeId < current.length ? current[nodeId] : UNKNOWN;
+        }
+
+        private void set(int nodeId, byte state) {
+            byte[] current = states;
+            if (nodeId >= current.length) {
+                current = Arrays.copyOf(current, Math.max(nodeId + 1, nodes.length));
+            }
+            current[nodeId] = state;
+            states = current;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package me.timjuice.roidCore.players;
+
+import me.timjuice.roidCore.RoidCore;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps RoidCore's player state in sync with players joining and leaving.
+ */
+public class PlayerListener implements Listener {
+    private final RoidCore roidPlugin;
+
+    public PlayerListener(RoidCore roidPlugin) {
+        this.roidPlugin = roidPlugin;
+    }
+
+    // Indexed before other plugins handle the join, so their commands can already target the player
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoinEarly(PlayerJoinEvent event) {
+        OnlinePlayerIndex.getInstance().add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        roidPlugin.getPlayerNameIndex().record(player.getUniqueId(), player.getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        OnlinePlayerIndex.getInstance().remove(event.getPlayer());
+        roidPlugin.getPermissionCache().invalidate(event.getPlayer().getUniqueId());
+    }
+
+    // Permission plugins may grant different permissions per world
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        roidPlugin.getPermissionCache().invalidate(event.getPlayer().getUniqueId());
+    }
+}
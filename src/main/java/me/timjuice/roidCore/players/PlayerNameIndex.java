@@ -0,0 +1,740 @@
+package me.timjuice.roidCore.players;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.timjuice.roidCore.utils.ConsoleLogger;
+import me.timjuice.roidCore.utils.MappedBuffers;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Persistent name &lt;-&gt; UUID index of every player the server has seen, so player arguments never need a profile lookup.
+ * <p>
+ * Records live in a compact append-only file of fixed-size records that is memory-mapped on first use, off the calling
+ * thread. Two open-addressing tables of record numbers give O(1) lookups in both directions, the names themselves
+ * are only read from the mapping. A single writer appends new records and inserts them into the live tables one by one,
+ * the tables are only rebuilt on load, when they grow, or when the file is compacted because most of its records are
+ * stale names of players that were recorded again. Players recorded but not written yet are kept in small overlay maps.
+ * Names that are known not to exist are remembered for a while in a negative cache.
+ * </p>
+ */
+public final class PlayerNameIndex {
+    private static final int MAGIC = 0x524F4944; // "ROID"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_NAME_LENGTH = 16;
+    private static final int RECORD_SIZE = 16 + 1 + MAX_NAME_LENGTH; // uuid, name length, name
+    private static final long NEGATIVE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_NEGATIVE_ENTRIES = 10_000;
+    // Cap of the records waiting for the writer, only reached if it falls far behind
+    private static final int MAX_PENDING = 4096;
+    // Stale records tolerated before the file is compacted on load, at least as many as there are players
+    private static final int COMPACT_MIN_STALE = 4096;
+    // Marks a name table slot whose name was dropped, lookups probe past it
+    private static final int TOMBSTONE = -1;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    // NBT tag types read when seeding from player data
+    private static final int TAG_END = 0;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+
+    private static final PendingRecord STOP = new PendingRecord(new UUID(0, 0), "");
+
+    private final Plugin plugin;
+    private final File file;
+    private final Executor executor;
+    private final File playerDataFolder;
+
+    // Null until the file has been mapped. The view is always published before table entries that point into it.
+    private volatile View view;
+    private volatile Tables tables;
+    private final Map<String, UUID> pendingByName = new ConcurrentHashMap<>();
+    private final Map<UUID, String> pendingByUniqueId = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingNames = new ConcurrentHashMap<>();
+
+    // Records waiting for the writer, which appends them in the order they were recorded
+    private final BlockingQueue<PendingRecord> pending = new LinkedBlockingQueue<>();
+    private final CountDownLatch writerDone = new CountDownLatch(1);
+    private volatile boolean started;
+    private boolean closed;
+    private volatile boolean warnedFull;
+
+    /**
+     * Must be created on the main thread, the world's player data folder is looked up here.
+     * Nothing is read until the index is first used.
+     */
+    public PlayerNameIndex(Plugin plugin, File file, Executor executor) {
+        this.plugin = plugin;
+        this.file = file;
+        this.executor = executor;
+        this.playerDataFolder = Bukkit.getWorlds().isEmpty() ? null : new File(Bukkit.getWorlds().get(0).getWorldFolder(), "playerdata");
+    }
+
+    /**
+     * Writes the records still waiting and stops the writer, waiting a few seconds for it to finish.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (!started) return;
+        }
+        pending.add(STOP);
+        try {
+            if (!writerDone.await(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                ConsoleLogger.warning(plugin, "Player name index did not finish writing in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the UUID of the player who last used a name.
+     * Until the file has been loaded, only players recorded since startup are found.
+     *
+     * @param name The player name, case-insensitive
+     * @return The UUID, or null if the name is not in the index
+     */
+    public UUID getUniqueId(String name) {
+        UUID recent = pendingByName.get(name.toLowerCase(Locale.ROOT));
+        if (recent != null) return recent;
+
+        Tables current = tables;
+        if (current == null) {
+            if (!started) start();
+            return null;
+        }
+        if (!isIndexable(name)) return null;
+
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) h = 31 * h + foldAscii(name.charAt(i));
+        int slot = mix(h) & current.mask;
+        int entry;
+        while ((entry = current.names.getAcquire(slot)) != 0) {
+            if (entry != TOMBSTONE) {
+                View records = view; // Read after the entry, so it covers the record
+                if (records.nameEquals(entry - 1, name)) return records.uniqueId(entry - 1);
+            }
+            slot = (slot + 1) & current.mask;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the last known name of a player.
+     * Until the file has been loaded, only players recorded since startup are found.
+     *
+     * @param uniqueId The player's UUID
+     * @return The name, or null if the player is not in the index
+     */
+    public String getName(UUID uniqueId) {
+        String recent = pendingByUniqueId.get(uniqueId);
+        if (recent != null) return recent;
+
+        Tables current = tables;
+        if (current == null) {
+            if (!started) start();
+            return null;
+        }
+
+        int record = findUniqueId(current, uniqueId.getMostSignificantBits(), uniqueId.getLeastSignificantBits());
+        return record == -1 ? null : view.name(record);
+    }
+
+    /**
+     * Checks the negative cache for names that recently turned out not to exist.
+     */
+    public boolean isKnownMissing(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Long expiry = missingNames.get(key);
+        if (expiry == null) return false;
+        if (expiry < System.currentTimeMillis()) {
+            missingNames.remove(key, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    public void markMissing(String name) {
+        if (missingNames.size() >= MAX_NEGATIVE_ENTRIES) {
+            missingNames.clear(); // Crude but bounded, entries are cheap to recreate
+        }
+        missingNames.put(name.toLowerCase(Locale.ROOT), System.currentTimeMillis() + NEGATIVE_TTL_MILLIS);
+    }
+
+    /**
+     * Records a player's current name. Unchanged names are ignored, new ones are queued for the writer.
+     * A player's previous name stops resolving to them once the new one is written.
+     *
+     * @param uniqueId The player's UUID
+     * @param name The player's current name
+     */
+    public void record(UUID uniqueId, String name) {
+        if (!isIndexable(name) || name.equals(getName(uniqueId))) return;
+        if (started && writerDone.getCount() == 0) return; // The writer failed or the index was closed
+        if (pendingByUniqueId.size() >= MAX_PENDING) {
+            // Dropped rather than queued where lookups can't see it, the player is recorded again on their next join
+            if (!warnedFull) {
+                warnedFull = true;
+                ConsoleLogger.warning(plugin, "Player name index writer is falling behind, skipping new records.");
+            }
+            return;
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        missingNames.remove(key);
+        pendingByName.put(key, uniqueId);
+        String previous = pendingByUniqueId.put(uniqueId, name);
+        if (previous != null && !previous.equalsIgnoreCase(name)) {
+            pendingByName.remove(previous.toLowerCase(Locale.ROOT), uniqueId); // Renamed again before it was written
+        }
+        pending.add(new PendingRecord(uniqueId, name));
+    }
+
+    /**
+     * Starts loading the file off the calling thread, the loading thread then stays on as the index's writer.
+     */
+    private synchronized void start() {
+        if (started || closed) return;
+        started = true;
+        try {
+            executor.execute(this::load);
+        } catch (RejectedExecutionException e) {
+            writerDone.countDown();
+        }
+    }
+
+    private void load() {
+        try {
+            boolean created = createIfMissing();
+            FileChannel channel = open();
+            try {
+                View records = map(channel);
+                Tables built = build(records);
+                int stale = records.count - built.uniqueIdCount;
+                if (stale >= Math.max(COMPACT_MIN_STALE, built.uniqueIdCount)) {
+                    channel = compact(channel, records, built);
+                    records = map(channel);
+                    built = build(records);
+                }
+                view = records;
+                tables = built;
+
+                seed(channel, created ? playerDataFolder : null); // Player data is slow to read, only needed the very first time
+                ConsoleLogger.info(plugin, "Loaded player name index with " + tables.uniqueIdCount + " players.");
+                writeLoop(channel);
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Failed to load player name index: " + e.getMessage());
+        } finally {
+            writerDone.countDown();
+        }
+    }
+
+    private boolean createIfMissing() throws IOException {
+        if (file.exists() && file.length() >= HEADER_SIZE) return false;
+
+        file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header);
+        }
+        return true;
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_SIZE + (channel.size() - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        if (channel.size() > size) {
+            // Drop a torn record at the end, e.g. after a crash, so later appends stay aligned
+            ConsoleLogger.warning(plugin, "Dropping a partially written record from the player name index.");
+            channel.truncate(size);
+        }
+        channel.position(size);
+        return channel;
+    }
+
+    /**
+     * Maps the whole file as it is now. Mapping is cheap, earlier mappings may still be read by lookups
+     * and are left to the garbage collector.
+     */
+    private View map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a player name index: " + file.getName());
+        }
+        return new View(buffer, (int) ((size - HEADER_SIZE) / RECORD_SIZE));
+    }
+
+    /**
+     * Builds the tables for every record in the file, later records win.
+     */
+    private static Tables build(View records) {
+        Tables built = new Tables(capacityFor(records.count));
+        for (int record = 0; record < records.count; record++) {
+            built = insert(built, records, record);
+        }
+        return built;
+    }
+
+    /**
+     * Rewrites the file with only the newest record of each player, in their original order.
+     * Runs before the tables are published, so nothing else reads the old mapping.
+     *
+     * @return The channel of whatever file is in place afterwards
+     */
+    private FileChannel compact(FileChannel channel, View records, Tables built) throws IOException {
+        int[] newest = new int[built.uniqueIdCount];
+        int count = 0;
+        for (int slot = 0; slot <= built.mask; slot++) {
+            int entry = built.uniqueIds.get(slot);
+            if (entry != 0) newest[count++] = entry - 1;
+        }
+        Arrays.sort(newest, 0, count);
+
+        File temporary = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + count * RECORD_SIZE);
+            data.putInt(MAGIC).putInt(VERSION);
+            for (int i = 0; i < count; i++) {
+                data.put(records.buffer.slice(View.offset(newest[i]), RECORD_SIZE));
+            }
+            data.flip();
+            while (data.hasRemaining()) out.write(data);
+            out.force(true);
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Failed to compact player name index: " + e.getMessage());
+            temporary.delete();
+            return channel;
+        }
+
+        MappedBuffers.unmap(records.buffer); // Windows refuses to replace a mapped file
+        channel.close();
+        try {
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ConsoleLogger.info(plugin, "Compacted player name index from " + records.count + " to " + count + " records.");
+        } catch (IOException e) {
+            ConsoleLogger.error(plugin, "Failed to replace player name index: " + e.getMessage());
+            temporary.delete();
+        }
+        return open(); // The old file is still complete if the move failed
+    }
+
+    /**
+     * Appends queued records until the index is closed.
+     */
+    private void writeLoop(FileChannel channel) throws IOException {
+        List<PendingRecord> batch = new ArrayList<>();
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(batch);
+            stopping = batch.remove(STOP);
+
+            append(channel, batch);
+            for (PendingRecord record : batch) {
+                // Only forget entries that weren't replaced by a newer record in the meantime
+                pendingByName.remove(record.name().toLowerCase(Locale.ROOT), record.uniqueId());
+                pendingByUniqueId.remove(record.uniqueId(), record.name());
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes records to the end of the file, remaps it and inserts them into the live tables.
+     */
+    private void append(FileChannel channel, List<PendingRecord> batch) throws IOException {
+        if (batch.isEmpty()) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate(batch.size() * RECORD_SIZE);
+        for (PendingRecord record : batch) {
+            int start = buffer.position();
+            buffer.putLong(record.uniqueId().getMostSignificantBits()).putLong(record.uniqueId().getLeastSignificantBits());
+            byte[] nameBytes = record.name().getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) nameBytes.length).put(nameBytes);
+            buffer.position(start + RECORD_SIZE);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        View records = map(channel);
+        view = records; // Published before any table entry points at the new records
+        Tables current = tables;
+        for (int record = records.count - batch.size(); record < records.count; record++) {
+            current = insert(current, records, record);
+        }
+        tables = current;
+    }
+
+    /**
+     * Writes every player the server already knows straight to the file as one batch.
+     *
+     * @param playerDataFolder The main world's player data to read as well, null to only read usercache.json
+     */
+    private void seed(FileChannel channel, File playerDataFolder) throws IOException {
+        Map<UUID, String> names = new LinkedHashMap<>();
+        readUserCache(names);
+        if (playerDataFolder != null) readPlayerData(playerDataFolder, names);
+
+        List<PendingRecord> records = new ArrayList<>();
+        names.forEach((uniqueId, name) -> {
+            if (isIndexable(name) && !name.equals(getName(uniqueId))) {
+                records.add(new PendingRecord(uniqueId, name));
+            }
+        });
+        append(channel, records);
+    }
+
+    private void readUserCache(Map<UUID, String> names) {
+        File userCache = new File("usercache.json");
+        if (!userCache.exists()) return;
+
+        try (Reader reader = new FileReader(userCache)) {
+            JsonArray entries = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : entries) {
+                JsonObject entry = element.getAsJsonObject();
+                names.put(UUID.fromString(entry.get("uuid").getAsString()), entry.get("name").getAsString());
+            }
+        } catch (IOException | RuntimeException e) {
+            ConsoleLogger.warning(plugin, "Could not seed player name index from usercache.json: " + e.getMessage());
+        }
+    }
+
+    private void readPlayerData(File playerDataFolder, Map<UUID, String> names) {
+        File[] files = playerDataFolder.listFiles((dir, fileName) -> fileName.endsWith(".dat"));
+        if (files == null) return;
+
+        for (File dataFile : files) {
+            UUID uniqueId;
+            try {
+                uniqueId = UUID.fromString(dataFile.getName().substring(0, dataFile.getName().length() - 4));
+            } catch (IllegalArgumentException e) {
+                continue; // Not a player data file
+            }
+            if (names.containsKey(uniqueId)) continue;
+
+            try {
+                String name = readLastKnownName(dataFile);
+                if (name != null) names.put(uniqueId, name);
+            } catch (IOException e) {
+                ConsoleLogger.warning(plugin, "Could not read player data " + dataFile.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the last known name the server stores with a player, in the "bukkit" compound of the player's NBT data.
+     * Walks the file itself, Bukkit's player lookups must not be used off the main thread.
+     *
+     * @return The name, or null if the file doesn't have one
+     */
+    private static String readLastKnownName(File dataFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(dataFile))))) {
+            if (in.readByte() != TAG_COMPOUND) return null;
+            in.readUTF(); // Name of the root compound
+            return findLastKnownName(in, false);
+        }
+    }
+
+    private static String findLastKnownName(DataInputStream in, boolean inBukkitCompound) throws IOException {
+        int type;
+        while ((type = in.readByte()) != TAG_END) {
+            String name = in.readUTF();
+            if (!inBukkitCompound && type == TAG_COMPOUND && name.equals("bukkit")) {
+                String found = findLastKnownName(in, true);
+                if (found != null) return found;
+            } else if (inBukkitCompound && type == TAG_STRING && name.equals("lastKnownName")) {
+                return in.readUTF();
+            } else {
+                skipTag(in, type);
+            }
+        }
+        return null;
+    }
+
+    private static void skipTag(DataInputStream in, int type) throws IOException {
+        switch (type) {
+            case 1 -> in.skipNBytes(1);          // Byte
+            case 2 -> in.skipNBytes(2);          // Short
+            case 3, 5 -> in.skipNBytes(4);       // Int, float
+            case 4, 6 -> in.skipNBytes(8);       // Long, double
+            case 7 -> in.skipNBytes(in.readInt());          // Byte array
+            case TAG_STRING -> in.skipNBytes(in.readUnsignedShort());
+            case TAG_LIST -> {
+                int elementType = in.readByte();
+                for (int i = 0, length = in.readInt(); i < length; i++) skipTag(in, elementType);
+            }
+            case TAG_COMPOUND -> {
+                int child;
+                while ((child = in.readByte()) != TAG_END) {
+                    in.readUTF();
+                    skipTag(in, child);
+                }
+            }
+            case 11 -> in.skipNBytes(4L * in.readInt());    // Int array
+            case 12 -> in.skipNBytes(8L * in.readInt());    // Long array
+            default -> throw new IOException("Unknown NBT tag " + type);
+        }
+    }
+
+    private static boolean isIndexable(String name) {
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 127) return false;
+        }
+        return true;
+    }
+
+    private static int foldAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + 32 : c;
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int uniqueIdHash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        return mix((int) (h ^ (h >>> 32)));
+    }
+
+    private static int capacityFor(int entries) {
+        return Integer.highestOneBit(Math.max(entries, 8) * 2 - 1) << 1; // At most half full
+    }
+
+    private int findUniqueId(Tables current, long msb, long lsb) {
+        int slot = uniqueIdHash(msb, lsb) & current.mask;
+        int entry;
+        while ((entry = current.uniqueIds.getAcquire(slot)) != 0) {
+            View records = view; // Read after the entry, so it covers the record
+            if (records.msb(entry - 1) == msb && records.lsb(entry - 1) == lsb) return entry - 1;
+            slot = (slot + 1) & current.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts a record into the tables, dropping the player's previous name if it still points at them.
+     * Only called by the writer, readers see each slot change atomically.
+     *
+     * @return The tables to use from now on, new ones if they had to grow
+     */
+    private static Tables insert(Tables current, View records, int record) {
+        if ((current.uniqueIdCount + 1) * 2 > current.mask + 1 || (current.nameSlotsUsed + 1) * 2 > current.mask + 1) {
+            current = current.grow(records);
+        }
+
+        int slot = uniqueIdHash(records.msb(record), records.lsb(record)) & current.mask;
+        int previous = -1;
+        int entry;
+        while ((entry = current.uniqueIds.get(slot)) != 0) {
+            if (records.sameUniqueId(entry - 1, record)) {
+                previous = entry - 1;
+                break;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+        current.uniqueIds.setRelease(slot, record + 1);
+        if (previous == -1) current.uniqueIdCount++;
+
+        if (previous != -1 && !records.sameName(previous, record)) {
+            // The player was renamed, their old name no longer finds them unless someone else has taken it since
+            slot = records.nameHash(previous) & current.mask;
+            while ((entry = current.names.get(slot)) != 0) {
+                if (entry != TOMBSTONE && records.sameName(entry - 1, previous)) {
+                    if (records.sameUniqueId(entry - 1, record)) current.names.setRelease(slot, TOMBSTONE);
+                    break;
+                }
+                slot = (slot + 1) & current.mask;
+            }
+        }
+
+        slot = records.nameHash(record) & current.mask;
+        int free = -1;
+        while ((entry = current.names.get(slot)) != 0) {
+            if (entry == TOMBSTONE) {
+                if (free == -1) free = slot;
+            } else if (records.sameName(entry - 1, record)) {
+                current.names.setRelease(slot, record + 1); // Later records win, reused names resolve to the newest owner
+                return current;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+        if (free == -1) {
+            free = slot;
+            current.nameSlotsUsed++;
+        }
+        current.names.setRelease(free, record + 1);
+        return current;
+    }
+
+    /**
+     * The lookup tables. Entries hold the record number plus one, zero marks an empty slot.
+     * The counts are only used by the writer.
+     */
+    private static final class Tables {
+        private final int mask;
+        private final AtomicIntegerArray names;
+        private final AtomicIntegerArray uniqueIds;
+        private int nameSlotsUsed; // Including tombstones
+        private int uniqueIdCount;
+
+        private Tables(int capacity) {
+            this.mask = capacity - 1;
+            this.names = new AtomicIntegerArray(capacity);
+            this.uniqueIds = new AtomicIntegerArray(capacity);
+        }
+
+        /**
+         * Copies the live entries into tables sized for twice as many, leaving tombstones behind.
+         * Readers keep using these tables until the new ones are published.
+         */
+        private Tables grow(View records) {
+            int live = 0;
+            for (int slot = 0; slot <= mask; slot++) {
+                int entry = names.get(slot);
+                if (entry != 0 && entry != TOMBSTONE) live++;
+            }
+            Tables grown = new Tables(capacityFor(Math.max(live, uniqueIdCount) * 2));
+            for (int slot = 0; slot <= mask; slot++) {
+                int entry = names.get(slot);
+                if (entry != 0 && entry != TOMBSTONE) {
+                    grown.place(grown.names, records.nameHash(entry - 1), entry);
+                    grown.nameSlotsUsed++;
+                }
+                entry = uniqueIds.get(slot);
+                if (entry != 0) {
+                    grown.place(grown.uniqueIds, uniqueIdHash(records.msb(entry - 1), records.lsb(entry - 1)), entry);
+                    grown.uniqueIdCount++;
+                }
+            }
+            return grown;
+        }
+
+        private void place(AtomicIntegerArray table, int hash, int entry) {
+            int slot = hash & mask;
+            while (table.get(slot) != 0) slot = (slot + 1) & mask;
+            table.set(slot, entry);
+        }
+    }
+
+    /**
+     * A read-only mapping of the file and the number of records it covers.
+     */
+    private static final class View {
+        private final MappedByteBuffer buffer;
+        private final int count;
+
+        private View(MappedByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.count = count;
+        }
+
+        private static int offset(int record) {
+            return HEADER_SIZE + record * RECORD_SIZE;
+        }
+
+        private long msb(int record) {
+            return buffer.getLong(offset(record));
+        }
+
+        private long lsb(int record) {
+            return buffer.getLong(offset(record) + 8);
+        }
+
+        private int nameLength(int record) {
+            return buffer.get(offset(record) + 16);
+        }
+
+        private UUID uniqueId(int record) {
+            return new UUID(msb(record), lsb(record));
+        }
+
+        private String name(int record) {
+            int length = nameLength(record);
+            byte[] bytes = new byte[length];
+            buffer.get(offset(record) + 17, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        private int nameHash(int record) {
+            int start = offset(record) + 17;
+            int h = 0;
+            for (int i = 0, length = nameLength(record); i < length; i++) h = 31 * h + foldAscii(buffer.get(start + i));
+            return mix(h);
+        }
+
+        private boolean nameEquals(int record, String name) {
+            if (nameLength(record) != name.length()) return false;
+            int start = offset(record) + 17;
+            for (int i = 0; i < name.length(); i++) {
+                if (foldAscii(buffer.get(start + i)) != foldAscii(name.charAt(i))) return false;
+            }
+            return true;
+        }
+
+        private boolean sameName(int record, int other) {
+            int length = nameLength(record);
+            if (length != nameLength(other)) return false;
+            int start = offset(record) + 17;
+            int otherStart = offset(other) + 17;
+            for (int i = 0; i < length; i++) {
+                if (foldAscii(buffer.get(start + i)) != foldAscii(buffer.get(otherStart + i))) return false;
+            }
+            return true;
+        }
+
+        private boolean sameUniqueId(int record, int other) {
+            return msb(record) == msb(other) && lsb(record) == lsb(other);
+        }
+    }
+
+    private record PendingRecord(UUID uniqueId, String name) {
+    }
+}
@@ -0,0 +1,110 @@
+package me.timjuice.roidCore.utils;
+
+import java.util.Map;
+
+/**
+ * Immutable, case-insensitive hash index that can be queried with a region of a larger string.
+ * Lookups neither lowercase nor substring the input, so a miss allocates nothing.
+ *
+ * @param <V> The type of the indexed values
+ */
+public final class CaseFoldedIndex<V> {
+    private static final CaseFoldedIndex<?> EMPTY = new CaseFoldedIndex<>(new String[1], new Object[1], 0, 0);
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    private CaseFoldedIndex(String[] keys, Object[] values, int mask, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = mask;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> CaseFoldedIndex<V> empty() {
+        return (CaseFoldedIndex<V>) EMPTY;
+    }
+
+    /**
+     * Builds an index from the given entries. Keys that only differ in case collapse into one entry,
+     * the last one wins.
+     *
+     * @param entries The entries to index
+     * @return A new index
+     */
+    public static <V> CaseFoldedIndex<V> of(Map<String, V> entries) {
+        if (entries.isEmpty()) return empty();
+
+        // Keep the load factor at or below 0.5 so probe chains stay short
+        int capacity = Integer.highestOneBit(entries.size() * 2 - 1) << 1;
+        String[] keys = new String[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        int size = 0;
+
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            int slot = hash(key, 0, key.length()) & mask;
+            while (keys[slot] != null && !keys[slot].equalsIgnoreCase(key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) size++;
+            keys[slot] = key;
+            values[slot] = entry.getValue();
+        }
+
+        return new CaseFoldedIndex<>(keys, values, mask, size);
+    }
+
+    /**
+     * Looks up the value whose key equals, ignoring case, the region of the source string.
+     *
+     * @param source The string containing the key
+     * @param start Start of the key, inclusive
+     * @param end End of the key, exclusive
+     * @return The value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String source, int start, int end) {
+        if (size == 0) return null;
+
+        int length = end - start;
+        int slot = hash(source, start, end) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == length && key.regionMatches(true, 0, source, start, length)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public V get(String key) {
+        return get(key, 0, key.length());
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int hash(String source, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            // Same folding as String.regionMatches(ignoreCase), so equal keys always hash equally
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(source.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -4,6 +4,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.logging.Level;
+
 public class ConsoleLogger {
     private static final String RESET = "\u001B[0m";
     private static final String RED = "\u001B[31m";
@@ -23,6 +25,11 @@ public class ConsoleLogger {
         Bukkit.getLogger().severe(RED + String.format("[%s] %s", plugin.getName(), message) + RESET);
     }
 
+    // Logs the stack trace of the error through the server's logger as well
+    public static void error(Plugin plugin, String message, Throwable error) {
+        Bukkit.getLogger().log(Level.SEVERE, RED + String.format("[%s] %s", plugin.getName(), message) + RESET, error);
+    }
+
     public static void success(Plugin plugin, String message) {
         Bukkit.getLogger().info(GREEN_BRIGHT + String.format("[%s] %s", plugin.getName(), message) + RESET);
     }
@@ -0,0 +1,259 @@
+package me.timjuice.roidCore.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive index for finding every key within a small edit distance of a query, e.g. for "did you mean".
+ * <p>
+ * Two strings are within Levenshtein distance k exactly when deleting at most k characters from each yields a common
+ * string. Every key is stored under the hashes of its deletion variants when added, so a search hashes the variants of
+ * the query and only computes the edit distance to keys sharing one of them. The hashes are computed while walking the
+ * string, so a search doesn't build any of the variants. Not thread-safe.
+ * </p>
+ *
+ * @param <V> The type of the values stored with the keys
+ */
+public final class FuzzyIndex<V> {
+    private static final long HASH_MULTIPLIER = 0x100000001B3L;
+
+    private final int maxDistance;
+    private String[] keys = new String[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    // Open addressing table from variant hash to the ids of the keys having that variant
+    private long[] hashes = new long[64];
+    private int[][] ids = new int[64][];
+    private int used;
+
+    // Keys already compared during the current search
+    private int[] seen = new int[16];
+    private int epoch;
+
+    /**
+     * @param maxDistance The largest edit distance searches can ask for, kept small since every key is stored
+     *                    once for each of its deletion variants
+     */
+    public FuzzyIndex(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Adds a key, ignoring case. Adding a key that is already present replaces its value.
+     *
+     * @param key The key
+     * @param value The value of the key
+     */
+    public void add(String key, V value) {
+        String folded = key.toLowerCase(Locale.ROOT);
+        int existing = find(folded);
+        if (existing != -1) {
+            values[existing] = value;
+            return;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            seen = Arrays.copyOf(seen, size * 2);
+        }
+        int id = size++;
+        keys[id] = folded;
+        values[id] = value;
+        addVariants(folded, 0, 0, maxDistance, id);
+    }
+
+    /**
+     * Finds every key within the given edit distance of the query, ignoring case.
+     *
+     * @param query The string to search for
+     * @param distance The maximum Levenshtein distance, at most the distance the index was created with
+     * @return The matches, closest first
+     */
+    public List<Match<V>> search(String query, int distance) {
+        if (distance > maxDistance) {
+            throw new IllegalArgumentException("Distance " + distance + " exceeds the index's maximum of " + maxDistance);
+        }
+
+        List<Match<V>> matches = new ArrayList<>();
+        if (size == 0) return matches;
+
+        String folded = query.toLowerCase(Locale.ROOT);
+        if (++epoch == 0) { // Wrapped around, forget every stamp
+            Arrays.fill(seen, 0);
+            epoch = 1;
+        }
+        searchVariants(folded, 0, 0, distance, new int[2 * (folded.length() + 1)], distance, matches);
+
+        matches.sort((a, b) -> Integer.compare(a.distance(), b.distance()));
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int find(String folded) {
+        int[] candidates = get(hashOf(folded));
+        if (candidates == null) return -1;
+        for (int id : candidates) {
+            if (keys[id].equals(folded)) return id;
+        }
+        return -1;
+    }
+
+    private static long hashOf(String s) {
+        long hash = 0;
+        for (int i = 0; i < s.length(); i++) {
+            hash = hash * HASH_MULTIPLIER + s.charAt(i);
+        }
+        return hash;
+    }
+
+    // Walks every way of keeping or deleting each character, with at most deletionsLeft deletions
+    private void addVariants(String key, int index, long hash, int deletionsLeft, int id) {
+        if (index == key.length()) {
+            put(hash, id);
+            return;
+        }
+        addVariants(key, index + 1, hash * HASH_MULTIPLIER + key.charAt(index), deletionsLeft, id);
+        if (deletionsLeft > 0) {
+            addVariants(key, index + 1, hash, deletionsLeft - 1, id);
+        }
+    }
+
+    private void searchVariants(String query, int index, long hash, int deletionsLeft, int[] rows, int distance, List<Match<V>> matches) {
+        if (index == query.length()) {
+            int[] candidates = get(hash);
+            if (candidates == null) return;
+
+            for (int id : candidates) {
+                if (seen[id] == epoch) continue;
+                seen[id] = epoch;
+                // Shared variant hashes only make a key a candidate, the actual distance decides
+                int actual = distance(query, keys[id], rows, distance);
+                if (actual <= distance) {
+                    @SuppressWarnings("unchecked")
+                    V value = (V) values[id];
+                    matches.add(new Match<>(keys[id], value, actual));
+                }
+            }
+            return;
+        }
+        searchVariants(query, index + 1, hash * HASH_MULTIPLIER + query.charAt(index), deletionsLeft, rows, distance, matches);
+        if (deletionsLeft > 0) {
+            searchVariants(query, index + 1, hash, deletionsLeft - 1, rows, distance, matches);
+        }
+    }
+
+    private int[] get(long hash) {
+        int mask = hashes.length - 1;
+        int slot = mix(hash) & mask;
+        int[] slotIds;
+        while ((slotIds = ids[slot]) != null) {
+            if (hashes[slot] == hash) return slotIds;
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private void put(long hash, int id) {
+        int mask = hashes.length - 1;
+        int slot = mix(hash) & mask;
+        int[] slotIds;
+        while ((slotIds = ids[slot]) != null) {
+            if (hashes[slot] == hash) {
+                // Deleting either of two equal characters gives the same variant
+                for (int existing : slotIds) {
+                    if (existing == id) return;
+                }
+                int[] grown = Arrays.copyOf(slotIds, slotIds.length + 1);
+                grown[slotIds.length] = id;
+                ids[slot] = grown;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        hashes[slot] = hash;
+        ids[slot] = new int[]{id};
+        if (++used * 2 > hashes.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldHashes = hashes;
+        int[][] oldIds = ids;
+        hashes = new long[oldHashes.length * 2];
+        ids = new int[oldHashes.length * 2][];
+        int mask = hashes.length - 1;
+
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldIds[i] == null) continue;
+            int slot = mix(oldHashes[i]) & mask;
+            while (ids[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = oldHashes[i];
+            ids[slot] = oldIds[i];
+        }
+    }
+
+    private static int mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    /**
+     * Levenshtein distance using two rows of the given scratch array, which holds at least 2 * (a.length() + 1) ints.
+     * Gives up as soon as the distance is known to exceed the limit.
+     *
+     * @return The distance, or limit + 1 if it exceeds the limit
+     */
+    private static int distance(String a, String b, int[] rows, int limit) {
+        // The length difference is a lower bound of the distance
+        if (Math.abs(a.length() - b.length()) > limit) return limit + 1;
+
+        int width = a.length() + 1;
+        int previous = 0;
+        int current = width;
+        for (int i = 0; i < width; i++) {
+            rows[i] = i;
+        }
+
+        for (int j = 1; j <= b.length(); j++) {
+            rows[current] = j;
+            char c = b.charAt(j - 1);
+            int rowMin = j;
+            for (int i = 1; i < width; i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(rows[current + i - 1] + 1, rows[previous + i] + 1), rows[previous + i - 1] + cost);
+                rows[current + i] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            // Values never decrease from one row to the next, so the distance can't get back under the limit
+            if (rowMin > limit) return limit + 1;
+            int swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int distance = rows[previous + width - 1];
+        return distance > limit ? limit + 1 : distance;
+    }
+
+    /**
+     * A key found by {@link #search(String, int)}.
+     *
+     * @param key The case-folded key
+     * @param value The value of the key
+     * @param distance The edit distance between the key and the query
+     */
+    public record Match<V>(String key, V value, int distance) {
+    }
+}
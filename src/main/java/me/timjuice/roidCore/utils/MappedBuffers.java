@@ -0,0 +1,42 @@
+package me.timjuice.roidCore.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+public final class MappedBuffers {
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * Releases a mapping right away instead of whenever it's garbage collected.
+     * Windows refuses to replace a file that is still mapped, so compaction depends on this.
+     * The mapping must not be used afterwards, by any thread.
+     */
+    public static void unmap(MappedByteBuffer mapping) {
+        if (mapping == null || INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) mapping);
+        } catch (Throwable ignored) {
+            // Left to the garbage collector
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Mappings are only released by the garbage collector then
+        }
+    }
+}
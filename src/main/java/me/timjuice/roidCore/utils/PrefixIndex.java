@@ -0,0 +1,175 @@
+package me.timjuice.roidCore.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, case-insensitive prefix index for tab completion.
+ * <p>
+ * Keys are folded to lowercase and sorted once when the index is built. A prefix query is two binary searches
+ * returning the contiguous range of matching keys, so it neither scans every candidate nor lowercases them.
+ * </p>
+ *
+ * @param <V> The type of the values stored with the keys
+ */
+public final class PrefixIndex<V> {
+    private static final PrefixIndex<?> EMPTY = new PrefixIndex<>(new String[0], new String[0], new Object[0]);
+
+    private final String[] folded;
+    private final String[] keys;
+    private final Object[] values;
+
+    private PrefixIndex(String[] folded, String[] keys, Object[] values) {
+        this.folded = folded;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PrefixIndex<V> empty() {
+        return (PrefixIndex<V>) EMPTY;
+    }
+
+    /**
+     * Builds an index of strings, each string being its own value.
+     *
+     * @param keys The strings to index
+     * @return A new index
+     */
+    public static PrefixIndex<String> of(Collection<String> keys) {
+        if (keys.isEmpty()) return empty();
+
+        Object[][] entries = new Object[keys.size()][];
+        int i = 0;
+        for (String key : keys) {
+            entries[i++] = new Object[]{key.toLowerCase(Locale.ROOT), key, key};
+        }
+        return build(entries);
+    }
+
+    /**
+     * Builds an index of keys with a value each.
+     *
+     * @param entries The keys and their values
+     * @return A new index
+     */
+    public static <V> PrefixIndex<V> of(Map<String, V> entries) {
+        if (entries.isEmpty()) return empty();
+
+        Object[][] sorted = new Object[entries.size()][];
+        int i = 0;
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            sorted[i++] = new Object[]{entry.getKey().toLowerCase(Locale.ROOT), entry.getKey(), entry.getValue()};
+        }
+        return build(sorted);
+    }
+
+    private static <V> PrefixIndex<V> build(Object[][] entries) {
+        Arrays.sort(entries, (a, b) -> ((String) a[0]).compareTo((String) b[0]));
+
+        String[] folded = new String[entries.length];
+        String[] keys = new String[entries.length];
+        Object[] values = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            folded[i] = (String) entries[i][0];
+            keys[i] = (String) entries[i][1];
+            values[i] = entries[i][2];
+        }
+        return new PrefixIndex<>(folded, keys, values);
+    }
+
+    /**
+     * Gets the index of the first key starting with the prefix, ignoring case.
+     * Together with {@link #end(String)} this is the range of matching keys.
+     */
+    public int start(String prefix) {
+        return lowerBound(prefix.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the index after the last key starting with the prefix, ignoring case.
+     */
+    public int end(String prefix) {
+        String foldedPrefix = prefix.toLowerCase(Locale.ROOT);
+        int low = lowerBound(foldedPrefix);
+        int high = folded.length;
+        // Matching keys are contiguous, find the first one past them
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (folded[mid].startsWith(foldedPrefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the original keys starting with the prefix, ignoring case, in case-folded order.
+     *
+     * @param prefix The prefix typed so far
+     * @return A new list of the matching keys
+     */
+    public List<String> complete(String prefix) {
+        return complete(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets at most {@code limit} original keys starting with the prefix, ignoring case.
+     *
+     * @param prefix The prefix typed so far
+     * @param limit The maximum amount of results
+     * @return A new list of the matching keys
+     */
+    public List<String> complete(String prefix, int limit) {
+        int start = start(prefix);
+        int end = end(prefix);
+        if (end - start > limit) end = start + Math.max(limit, 0);
+        if (start >= end) return new ArrayList<>(0);
+        return new ArrayList<>(Arrays.asList(keys).subList(start, end));
+    }
+
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getValue(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * @return The original keys in case-folded order
+     */
+    public List<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    private int lowerBound(String foldedPrefix) {
+        int low = 0;
+        int high = folded.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (folded[mid].compareTo(foldedPrefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
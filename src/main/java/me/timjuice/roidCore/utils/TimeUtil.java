@@ -130,4 +130,20 @@ public class TimeUtil {
 
         return totalSeconds;
     }
+
+    /**
+     * Formats milliseconds as seconds with at most one decimal, e.g. "2.5" or "3".
+     * <p>
+     * Cheap replacement for {@code new DecimalFormat("#.#")}, meant for messages sent on every command.
+     * </p>
+     *
+     * @param millis the duration in milliseconds, negative values count as zero
+     * @return the formatted amount of seconds
+     */
+    public static String formatSecondsTenths(long millis) {
+        long tenths = (Math.max(millis, 0L) + 50L) / 100L; // Round half up to a tenth of a second
+        long whole = tenths / 10L;
+        int fraction = (int) (tenths % 10L);
+        return fraction == 0 ? Long.toString(whole) : whole + "." + fraction;
+    }
 }
@@ -0,0 +1,219 @@
+package me.timjuice.roidCore.utils;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Hashed hierarchical timing wheel for scheduling many timeouts with coarse precision.
+ * <p>
+ * Four levels of 64 buckets each cover 64<sup>4</sup> ticks. Timeouts sit in the bucket of the lowest level
+ * that can still tell their deadline apart from the current tick, and move down one level each time the
+ * level above wraps around. Scheduling, cancelling and expiring a timeout are all O(1),
+ * and an empty bucket costs a single null check per tick.
+ * </p>
+ * <p>
+ * Not thread-safe. Every method must be called from the same thread, usually the main server thread
+ * from which {@link #advance(long)} is driven.
+ * </p>
+ */
+public final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int OVERFLOW = -1;
+
+    private final Plugin plugin;
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout[][] buckets = new Timeout[LEVELS][SLOTS];
+    // Timeouts too far away for the highest level, re-inserted every time it wraps around
+    private Timeout overflow;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param plugin The plugin that failing tasks are reported for
+     * @param tickMillis The duration of one tick in milliseconds, deadlines are rounded up to it
+     * @param startMillis The time the wheel starts at
+     */
+    public TimingWheel(Plugin plugin, long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick duration must be positive");
+        this.plugin = plugin;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Schedules a task. Deadlines that already passed run on the next {@link #advance(long)}.
+     *
+     * @param deadlineMillis The time at which the task should run
+     * @param task The task
+     * @return A handle that can cancel the task
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        long elapsed = Math.max(deadlineMillis - startMillis, 0L);
+        long deadlineTick = Math.max((elapsed + tickMillis - 1) / tickMillis, currentTick + 1);
+        Timeout timeout = new Timeout(this, deadlineMillis, deadlineTick, task);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward to the given time, running every task whose deadline has been reached.
+     * A task that throws is logged to the console and doesn't stop the others.
+     *
+     * @param nowMillis The current time
+     * @return The amount of tasks that ran
+     */
+    public int advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        int expired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            // Pop one at a time, a task may cancel another timeout of the same bucket
+            int slot = (int) (currentTick & MASK);
+            Timeout timeout;
+            while ((timeout = buckets[0][slot]) != null) {
+                unlink(timeout);
+                size--;
+                expired++;
+                try {
+                    timeout.task.run();
+                } catch (Throwable t) {
+                    ConsoleLogger.error(plugin, "Scheduled task failed: " + t);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return The amount of pending timeouts
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves the timeouts of every higher level bucket that the current tick has just reached one level down.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            // The level below wrapped around unless these bits are all zero
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) return;
+
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Timeout timeout = buckets[level][slot];
+            buckets[level][slot] = null;
+            reinsert(timeout);
+        }
+
+        if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+            Timeout timeout = overflow;
+            overflow = null;
+            reinsert(timeout);
+        }
+    }
+
+    private void reinsert(Timeout timeout) {
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.unlinked();
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long deadlineTick = timeout.deadlineTick;
+        for (int level = 0; level < LEVELS; level++) {
+            // Lowest level whose higher bits match the current tick, so the bucket is reached before the deadline
+            int shift = BITS * (level + 1);
+            if ((deadlineTick >>> shift) == (currentTick >>> shift)) {
+                link(timeout, level, (int) ((deadlineTick >>> (BITS * level)) & MASK));
+                return;
+            }
+        }
+        link(timeout, OVERFLOW, 0);
+    }
+
+    private void link(Timeout timeout, int level, int slot) {
+        Timeout head = level == OVERFLOW ? overflow : buckets[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        if (level == OVERFLOW) {
+            overflow = timeout;
+        } else {
+            buckets[level][slot] = timeout;
+        }
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (timeout.level == OVERFLOW) {
+            overflow = timeout.next;
+        } else {
+            buckets[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.unlinked();
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+        private static final int DETACHED = -2;
+
+        private final TimingWheel wheel;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int level;
+        private int slot;
+
+        private Timeout(TimingWheel wheel, long deadlineMillis, long deadlineTick, Runnable task) {
+            this.wheel = wheel;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        public long getDeadline() {
+            return deadlineMillis;
+        }
+
+        /**
+         * @return true while the task is still waiting to run
+         */
+        public boolean isPending() {
+            return level != DETACHED;
+        }
+
+        /**
+         * Cancels the task if it hasn't run yet.
+         *
+         * @return true if the task was cancelled by this call
+         */
+        public boolean cancel() {
+            if (level == DETACHED) return false;
+            wheel.unlink(this);
+            wheel.size--;
+            return true;
+        }
+
+        private void unlinked() {
+            prev = null;
+            next = null;
+            level = DETACHED;
+        }
+    }
+}
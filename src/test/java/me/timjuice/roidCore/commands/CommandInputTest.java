@@ -0,0 +1,110 @@
+package me.timjuice.roidCore.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandInputTest {
+    private static List<String> tokens(CommandInput input) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < input.size(); i++) tokens.add(input.token(i));
+        return tokens;
+    }
+
+    @Test
+    void splitsOnSpacesAndSkipsRepeatedOnes() {
+        CommandInput input = CommandInput.tokenize("/give  Steve   diamond 64 ", 1);
+        assertEquals(List.of("give", "Steve", "diamond", "64"), tokens(input));
+    }
+
+    @Test
+    void startsAtTheGivenIndex() {
+        assertEquals(List.of("help"), tokens(CommandInput.tokenize("/help", 1)));
+        assertTrue(CommandInput.tokenize("/", 1).isEmpty());
+        assertTrue(CommandInput.tokenize("   ", 0).isEmpty());
+    }
+
+    @Test
+    void quotedTokenRunsToTheClosingQuote() {
+        CommandInput input = CommandInput.tokenize("say \"Hello  world\" now", 0);
+        assertEquals(List.of("say", "Hello  world", "now"), tokens(input));
+        assertTrue(input.isQuoted(1));
+        assertFalse(input.isQuoted(0));
+        assertEquals("\"Hello  world\"", input.slice(1, 2));
+    }
+
+    @Test
+    void quotedTokenMayEndTheInput() {
+        CommandInput input = CommandInput.tokenize("say \"Hello world\"", 0);
+        assertEquals(List.of("say", "Hello world"), tokens(input));
+    }
+
+    @Test
+    void emptyQuotesAreAnEmptyToken() {
+        CommandInput input = CommandInput.tokenize("set \"\" x", 0);
+        assertEquals(3, input.size());
+        assertEquals(0, input.length(1));
+        assertEquals((char) 0, input.firstChar(1));
+    }
+
+    @Test
+    void closingQuoteMustBeFollowedBySeparator() {
+        assertEquals(List.of("\"a\"b"), tokens(CommandInput.tokenize("\"a\"b", 0)));
+        assertEquals(List.of("\"a\"b", "c"), tokens(CommandInput.tokenize("\"a\"b c", 0)));
+    }
+
+    @Test
+    void unclosedQuoteIsLiteral() {
+        CommandInput input = CommandInput.tokenize("say \"Hello world", 0);
+        assertEquals(List.of("say", "\"Hello", "world"), tokens(input));
+        assertFalse(input.isQuoted(1));
+    }
+
+    @Test
+    void quoteInsideTokenIsLiteral() {
+        assertEquals(List.of("it\"s", "fine"), tokens(CommandInput.tokenize("it\"s fine", 0)));
+    }
+
+    @Test
+    void sliceKeepsOriginalSpacing() {
+        CommandInput input = CommandInput.tokenize("msg Steve hi   there \"you\"", 0);
+        assertEquals("hi   there \"you\"", input.slice(2, input.size()));
+    }
+
+    @Test
+    void comparesTokensWithoutCopying() {
+        CommandInput input = CommandInput.tokenize("Reload now", 0);
+        assertTrue(input.tokenEqualsIgnoreCase(0, "reload"));
+        assertFalse(input.tokenEquals(0, "reload"));
+        assertTrue(input.tokenEquals(1, "now"));
+        assertFalse(input.tokenEquals(1, "no"));
+    }
+
+    @Test
+    void rejoinsPreSplitArguments() {
+        CommandInput input = CommandInput.of(new String[]{"\"Hello", "world\"", "x"});
+        assertEquals(List.of("Hello world", "x"), tokens(input));
+
+        // Bukkit passes an empty argument for every repeated space
+        assertEquals(List.of("a", "b"), tokens(CommandInput.of(new String[]{"a", "", "b"})));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100; i++) line.append(i).append(' ');
+        CommandInput input = CommandInput.tokenize(line.toString(), 0);
+        assertEquals(100, input.size());
+        assertEquals("99", input.token(99));
+    }
+
+    @Test
+    void rejectsOutOfRangeIndex() {
+        CommandInput input = CommandInput.tokenize("a b", 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> input.token(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> input.start(-1));
+    }
+}
@@ -0,0 +1,145 @@
+package me.timjuice.roidCore.commands.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandAdmissionTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final UUID PLAYER = new UUID(1, 1);
+    private static final UUID OTHER = new UUID(2, 2);
+
+    private static CommandAdmission admission(int burst, double refillPerSecond) {
+        return new CommandAdmission(AdmissionPolicy.builder().setPlayerRateLimit(burst, refillPerSecond).build());
+    }
+
+    @Test
+    void playerBucketAllowsBurstThenRefills() {
+        CommandAdmission admission = admission(3, 2.0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+        }
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.peek(PLAYER, 0L));
+
+        // Two tokens per second, so one is back after half a second
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, -1, 0, 0, SECOND / 4));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, SECOND / 2));
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, -1, 0, 0, SECOND / 2));
+
+        // Never refills past the burst
+        long later = 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, later));
+        }
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, -1, 0, 0, later));
+    }
+
+    @Test
+    void playersHaveSeparateBuckets() {
+        CommandAdmission admission = admission(1, 1.0);
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(OTHER, -1, 0, 0, 0L));
+    }
+
+    @Test
+    void peekDoesNotTakeTokens() {
+        CommandAdmission admission = admission(1, 1.0);
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.peek(PLAYER, 0L)); // Unknown player
+        admission.acquire(OTHER, -1, 0, 0, 0L);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(CommandAdmission.Result.ADMITTED, admission.peek(PLAYER, 0L));
+        }
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+    }
+
+    @Test
+    void commandBucketIsPerCommand() {
+        CommandAdmission admission = new CommandAdmission(AdmissionPolicy.UNLIMITED);
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 0, 1, 1.0, 0L));
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, 0, 1, 1.0, 0L));
+        // A command id past the initial bucket array grows it, and starts full
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 9, 1, 1.0, 0L));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 0, 1, 1.0, SECOND));
+        // Commands without a rate limit are never limited
+        for (int i = 0; i < 5; i++) {
+            assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 1, 0, 0, 0L));
+        }
+    }
+
+    @Test
+    void nothingIsTakenUnlessBothBucketsHaveAToken() {
+        CommandAdmission admission = admission(2, 1.0);
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 0, 1, 1.0, 0L));
+        // The command bucket is empty, so the player bucket must keep its last token
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, 0, 1, 1.0, 0L));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+
+        // Now the player bucket is empty, so the command bucket must keep its token
+        assertEquals(CommandAdmission.Result.RATE_LIMITED, admission.acquire(PLAYER, 1, 1, 1.0, 0L));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, 1, 1, 1.0, SECOND));
+    }
+
+    @Test
+    void unlimitedPolicyAdmitsEverything() {
+        CommandAdmission admission = new CommandAdmission(AdmissionPolicy.UNLIMITED);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(CommandAdmission.Result.ADMITTED, admission.acquire(PLAYER, -1, 0, 0, 0L));
+        }
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.checkInput("/" + "a ".repeat(5000), 1));
+    }
+
+    @Test
+    void checksRawInputLimits() {
+        CommandAdmission admission = new CommandAdmission(AdmissionPolicy.builder().setMaxInputLength(10).setMaxTokens(3).build());
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.checkInput("/abcdefghij", 1));
+        assertEquals(CommandAdmission.Result.INPUT_TOO_LONG, admission.checkInput("/abcdefghijk", 1));
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.checkInput("/a  b   c", 1));
+        assertEquals(CommandAdmission.Result.TOO_MANY_TOKENS, admission.checkInput("/a b c d", 1));
+    }
+
+    @Test
+    void checksSplitInputLimits() {
+        CommandAdmission admission = new CommandAdmission(AdmissionPolicy.builder().setMaxInputLength(10).setMaxTokens(3).build());
+
+        assertEquals(CommandAdmission.Result.ADMITTED, admission.checkInput("cmd", new String[]{"abc", "ab"}));
+        assertEquals(CommandAdmission.Result.INPUT_TOO_LONG, admission.checkInput("cmd", new String[]{"abc", "abc"}));
+        assertEquals(CommandAdmission.Result.TOO_MANY_TOKENS, admission.checkInput("cmd", new String[]{"a", "b", "c"}));
+    }
+
+    @Test
+    void countTokensStopsAtTheLimit() {
+        assertEquals(0, CommandAdmission.countTokens("   ", 0, 10));
+        assertEquals(3, CommandAdmission.countTokens(" a bb  ccc ", 0, 10));
+        assertEquals(2, CommandAdmission.countTokens("a b c d", 0, 2));
+        assertEquals(1, CommandAdmission.countTokens("/cmd", 1, 10));
+    }
+
+    @Test
+    void rejectionsAreCountedAndNoticesThrottled() {
+        CommandAdmission admission = new CommandAdmission(AdmissionPolicy.builder().setNoticeIntervalMillis(1000L).build());
+
+        assertTrue(admission.reject(PLAYER, 5000L));
+        assertFalse(admission.reject(PLAYER, 5500L));
+        assertFalse(admission.reject(PLAYER, 5999L));
+        assertTrue(admission.reject(PLAYER, 6000L));
+        assertEquals(4, admission.getRejections(PLAYER));
+        assertEquals(0, admission.getRejections(OTHER));
+        assertEquals(Map.of(PLAYER, 4L), admission.getRejectionCounts());
+
+        admission.release(PLAYER);
+        assertEquals(0, admission.getRejections(PLAYER));
+        assertTrue(admission.getRejectionCounts().isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+package me.timjuice.roidCore.commands.cooldown;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CooldownLogTest {
+    // Layout of the log, see CooldownLog
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 36;
+
+    // Compaction drops cooldowns that expired by the wall clock
+    private static final long NOW = System.currentTimeMillis();
+    private static final UUID PLAYER = new UUID(1, 2);
+    private static final UUID OTHER = new UUID(3, 4);
+
+    @TempDir
+    Path folder;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private File file() {
+        return folder.resolve("cooldowns.log").toFile();
+    }
+
+    private CooldownLog newLog() {
+        return new CooldownLog(null, file(), executor);
+    }
+
+    private Map<Long, List<CooldownEntry>> reopen(long now) throws IOException {
+        CooldownLog log = newLog();
+        Map<Long, List<CooldownEntry>> active = log.open(now);
+        log.close();
+        return active;
+    }
+
+    private boolean recordWritten(int record) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "r")) {
+            raf.seek(HEADER_SIZE + (long) record * RECORD_SIZE);
+            byte[] bytes = new byte[RECORD_SIZE];
+            raf.readFully(bytes);
+            for (byte b : bytes) {
+                if (b != 0) return true;
+            }
+            return false; // Unused space is zero-filled
+        }
+    }
+
+    @Test
+    void replaysActiveCooldownsByCommandKey() throws IOException {
+        CooldownLog log = newLog();
+        assertTrue(log.open(NOW).isEmpty());
+        log.append(PLAYER, 1L, NOW + 5000);
+        log.append(OTHER, 1L, NOW + 6000);
+        log.append(PLAYER, 2L, NOW + 100); // Expired by the time it's reopened
+        log.close();
+
+        Map<Long, List<CooldownEntry>> active = reopen(NOW + 1000);
+        assertEquals(Set.of(1L), active.keySet());
+        assertEquals(Set.of(new CooldownEntry(PLAYER, 1L, NOW + 5000), new CooldownEntry(OTHER, 1L, NOW + 6000)), new HashSet<>(active.get(1L)));
+    }
+
+    @Test
+    void laterRecordsWinAndResetsClear() throws IOException {
+        CooldownLog log = newLog();
+        log.open(NOW);
+        log.append(PLAYER, 1L, NOW + 5000);
+        log.append(PLAYER, 1L, NOW + 9000);
+        log.append(PLAYER, 2L, NOW + 5000);
+        log.append(PLAYER, 2L, 0L);
+        log.close();
+
+        assertEquals(Map.of(1L, List.of(new CooldownEntry(PLAYER, 1L, NOW + 9000))), reopen(NOW));
+    }
+
+    @Test
+    void keepsCooldownsAppendedWhileOpening() throws IOException {
+        CooldownLog log = newLog();
+        log.append(PLAYER, 1L, NOW + 5000);
+        log.open(NOW);
+        log.close();
+
+        assertEquals(Map.of(1L, List.of(new CooldownEntry(PLAYER, 1L, NOW + 5000))), reopen(NOW));
+    }
+
+    @Test
+    void closedLogIgnoresOpenAndAppends() throws IOException {
+        CooldownLog log = newLog();
+        log.close();
+        log.append(PLAYER, 1L, NOW + 5000);
+        assertTrue(log.open(NOW).isEmpty());
+        assertFalse(file().exists());
+    }
+
+    @Test
+    void tornRecordEndsReplayAndIsOverwritten() throws IOException {
+        CooldownLog log = newLog();
+        log.open(NOW);
+        log.append(PLAYER, 1L, NOW + 5000);
+        log.append(PLAYER, 2L, NOW + 5000);
+        log.close();
+
+        // Flip a byte of the second record, as if the crash happened while it was written
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            long position = HEADER_SIZE + RECORD_SIZE + 20;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+
+        log = newLog();
+        assertEquals(Map.of(1L, List.of(new CooldownEntry(PLAYER, 1L, NOW + 5000))), log.open(NOW));
+        log.append(PLAYER, 3L, NOW + 5000);
+        log.close();
+
+        Map<Long, List<CooldownEntry>> active = reopen(NOW);
+        assertEquals(2, active.size());
+        assertEquals(List.of(new CooldownEntry(PLAYER, 3L, NOW + 5000)), active.get(3L));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.writeInt(0x12345678);
+            raf.writeInt(1);
+        }
+        assertThrows(IOException.class, () -> newLog().open(NOW));
+    }
+
+    @Test
+    void compactsOnceMostRecordsAreStale() throws Exception {
+        CooldownLog log = newLog();
+        log.open(NOW);
+        long mapped = file().length();
+        for (int i = 0; i < 6000; i++) {
+            log.append(PLAYER, i % 3, NOW + 10_000 + i);
+        }
+
+        // The flusher writes and compacts in the same pass, afterwards only the three live records are left
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(recordWritten(0) && !recordWritten(3)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(recordWritten(2) && !recordWritten(3), "The log wasn't compacted");
+        assertEquals(mapped, file().length());
+        log.close();
+
+        Map<Long, List<CooldownEntry>> active = reopen(NOW);
+        assertEquals(3, active.size());
+        assertEquals(List.of(new CooldownEntry(PLAYER, 2L, NOW + 10_000 + 5999)), active.get(2L));
+    }
+}
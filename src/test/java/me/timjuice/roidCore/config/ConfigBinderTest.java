@@ -0,0 +1,136 @@
+package me.timjuice.roidCore.config;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigBinderTest {
+    // Only valid values are bound here, invalid ones are logged through the server
+    record HomeSettings(
+        @ConfigValue(defaultValue = "3", min = 0) int maxHomes,
+        @ConfigValue(defaultValue = "5s") Duration teleportDelay,
+        @ConfigValue(colored = true) String teleportMessage,
+        List<String> worlds,
+        TimeUnit unit,
+        boolean allowBeds,
+        Limits limits
+    ) {
+    }
+
+    record Limits(@ConfigValue(defaultValue = "10") long perDay, @ConfigValue(path = "cost") double price) {
+    }
+
+    record Required(@ConfigValue(required = true) String name, @ConfigValue(required = true) int level) {
+    }
+
+    record BrokenDefault(@ConfigValue(defaultValue = "lots") int amount) {
+    }
+
+    static class MutableSettings {
+        int radius = 16;
+        String greeting = "hello";
+        transient int ignored = 7;
+    }
+
+    static class FinalSettings {
+        final int radius = 16;
+    }
+
+    @Test
+    void bindsRecordComponentsFromKebabCaseKeys() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("homes.max-homes", 5);
+        config.set("homes.teleport-delay", "1m30s");
+        config.set("homes.teleport-message", "&aTeleporting...");
+        config.set("homes.worlds", List.of("world", "world_nether"));
+        config.set("homes.unit", "milliseconds");
+        config.set("homes.allow-beds", "TRUE");
+        config.set("homes.limits.per-day", "20");
+        config.set("homes.limits.cost", 2.5);
+
+        HomeSettings settings = ConfigBinder.of(HomeSettings.class).bind(null, config.getConfigurationSection("homes"));
+
+        assertEquals(5, settings.maxHomes());
+        assertEquals(Duration.ofSeconds(90), settings.teleportDelay());
+        assertEquals(ChatColor.translateAlternateColorCodes('&', "&aTeleporting..."), settings.teleportMessage());
+        assertEquals(List.of("world", "world_nether"), settings.worlds());
+        assertEquals(TimeUnit.MILLISECONDS, settings.unit());
+        assertTrue(settings.allowBeds());
+        assertEquals(new Limits(20L, 2.5), settings.limits());
+    }
+
+    @Test
+    void missingValuesUseDefaults() {
+        HomeSettings settings = ConfigBinder.of(HomeSettings.class).bind(null, new YamlConfiguration().createSection("homes"));
+
+        assertEquals(3, settings.maxHomes());
+        assertEquals(Duration.ofSeconds(5), settings.teleportDelay());
+        assertEquals("", settings.teleportMessage());
+        assertEquals(List.of(), settings.worlds());
+        assertNull(settings.unit());
+        assertFalse(settings.allowBeds());
+        assertEquals(new Limits(10L, 0.0), settings.limits()); // Bound from an empty section
+        assertEquals(settings, ConfigBinder.of(HomeSettings.class).bind(null, null));
+    }
+
+    @Test
+    void singleValueBindsAsListOfOne() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("worlds", "world");
+
+        assertEquals(List.of("world"), ConfigBinder.of(HomeSettings.class).bind(null, config).worlds());
+    }
+
+    @Test
+    void durationsAcceptPlainSeconds() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("teleport-delay", 12);
+
+        assertEquals(Duration.ofSeconds(12), ConfigBinder.of(HomeSettings.class).bind(null, config).teleportDelay());
+    }
+
+    @Test
+    void missingRequiredValuesFailWithTheirPaths() {
+        YamlConfiguration config = new YamlConfiguration();
+        ConfigurationSection section = config.createSection("profile");
+        section.set("level", 2);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> ConfigBinder.of(Required.class).bind(null, section));
+        assertTrue(error.getMessage().contains("profile.name"), error.getMessage());
+        assertFalse(error.getMessage().contains("profile.level"), error.getMessage());
+
+        section.set("name", "Steve");
+        assertEquals(new Required("Steve", 2), ConfigBinder.of(Required.class).bind(null, section));
+    }
+
+    @Test
+    void bindsClassFieldsAndKeepsInitialValues() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("radius", 32);
+        config.set("ignored", 1);
+
+        MutableSettings settings = ConfigBinder.of(MutableSettings.class).bind(null, config);
+        assertEquals(32, settings.radius);
+        assertEquals("hello", settings.greeting);
+        assertEquals(7, settings.ignored);
+    }
+
+    @Test
+    void rejectsTypesThatCantBeBound() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigBinder.of(FinalSettings.class));
+        assertThrows(IllegalArgumentException.class, () -> ConfigBinder.of(BrokenDefault.class));
+    }
+
+    @Test
+    void binderIsBuiltOncePerType() {
+        assertSame(ConfigBinder.of(Limits.class), ConfigBinder.of(Limits.class));
+    }
+}
@@ -0,0 +1,63 @@
+package me.timjuice.roidCore.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+    @Test
+    void rendersLikeReplace() {
+        String message = "&a/{BASE_CMD} {SUB_CMD_NAME} - {BASE_CMD}";
+        MessageTemplate template = MessageTemplate.compile(message, "BASE_CMD", "SUB_CMD_NAME");
+
+        String expected = message.replace("{BASE_CMD}", "roidcore").replace("{SUB_CMD_NAME}", "help");
+        assertEquals(expected, template.render("roidcore", "help"));
+        assertFalse(template.isStatic());
+    }
+
+    @Test
+    void valuesFollowDeclarationOrderNotMessageOrder() {
+        MessageTemplate template = MessageTemplate.compile("{B} then {A}", "A", "B");
+        assertEquals("2 then 1", template.render(1, 2));
+    }
+
+    @Test
+    void undeclaredPlaceholdersStayLiteral() {
+        MessageTemplate template = MessageTemplate.compile("{PLAYER} has {UNKNOWN} and {} {", "PLAYER");
+        assertEquals("Steve has {UNKNOWN} and {} {", template.render("Steve"));
+    }
+
+    @Test
+    void placeholderInsideBraces() {
+        MessageTemplate template = MessageTemplate.compile("{{NAME}}", "NAME");
+        assertEquals("{x}", template.render("x"));
+    }
+
+    @Test
+    void staticMessageRendersItsSource() {
+        String message = "No placeholders {HERE}";
+        MessageTemplate template = MessageTemplate.compile(message, "OTHER");
+
+        assertTrue(template.isStatic());
+        assertSame(message, template.render());
+        assertEquals(message, template.toString());
+    }
+
+    @Test
+    void nullValuesRenderAsNull() {
+        assertEquals("value: null", MessageTemplate.compile("value: {V}", "V").render((Object) null));
+    }
+
+    @Test
+    void rejectsMissingValues() {
+        MessageTemplate template = MessageTemplate.compile("{A} {B}", "A", "B");
+        assertThrows(IllegalArgumentException.class, () -> template.render("only one"));
+    }
+
+    @Test
+    void emptyMessage() {
+        MessageTemplate template = MessageTemplate.compile("", "A");
+        assertTrue(template.isStatic());
+        assertEquals("", template.render());
+    }
+}
@@ -0,0 +1,134 @@
+package me.timjuice.roidCore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+    private static List<String> keys(List<FuzzyIndex.Match<String>> matches) {
+        List<String> keys = new ArrayList<>();
+        for (FuzzyIndex.Match<String> match : matches) keys.add(match.key());
+        return keys;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    @Test
+    void findsTyposClosestFirst() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(2);
+        for (String key : List.of("teleport", "tpahere", "reload", "help", "home", "homes", "sethome")) {
+            index.add(key, key);
+        }
+
+        List<FuzzyIndex.Match<String>> matches = index.search("hom", 2);
+        assertEquals("home", matches.get(0).key());
+        assertEquals(1, matches.get(0).distance());
+        assertEquals(List.of("home", "homes"), keys(matches));
+
+        assertEquals(List.of("teleport"), keys(index.search("telport", 1)));
+        assertEquals(List.of("reload"), keys(index.search("relaod", 2))); // A swap is two edits
+        assertEquals(List.of(), keys(index.search("relaod", 1)));
+    }
+
+    @Test
+    void ignoresCase() {
+        FuzzyIndex<Integer> index = new FuzzyIndex<>(1);
+        index.add("Reload", 1);
+
+        List<FuzzyIndex.Match<Integer>> matches = index.search("RELOAD", 0);
+        assertEquals(1, matches.size());
+        assertEquals("reload", matches.get(0).key());
+        assertEquals(Integer.valueOf(1), matches.get(0).value());
+    }
+
+    @Test
+    void addingAnExistingKeyReplacesItsValue() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(1);
+        index.add("spawn", "old");
+        index.add("SPAWN", "new");
+
+        assertEquals(1, index.size());
+        assertEquals("new", index.search("spawn", 0).get(0).value());
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        assertTrue(new FuzzyIndex<String>(2).search("anything", 2).isEmpty());
+    }
+
+    @Test
+    void rejectsDistanceAboveTheIndexMaximum() {
+        FuzzyIndex<String> index = new FuzzyIndex<>(1);
+        assertThrows(IllegalArgumentException.class, () -> index.search("a", 2));
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(3);
+        List<String> keys = new ArrayList<>();
+        FuzzyIndex<String> index = new FuzzyIndex<>(2);
+        for (int i = 0; i < 300; i++) {
+            String key = randomWord(random);
+            keys.add(key);
+            index.add(key, key);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            // Half the queries are mutations of existing keys, so there is something to find
+            String query = i % 2 == 0 ? randomWord(random) : mutate(keys.get(random.nextInt(keys.size())), random);
+            for (int distance = 0; distance <= 2; distance++) {
+                Set<String> expected = new HashSet<>();
+                for (String key : keys) {
+                    if (levenshtein(key, query) <= distance) expected.add(key);
+                }
+                List<FuzzyIndex.Match<String>> matches = index.search(query, distance);
+                assertEquals(expected, new HashSet<>(keys(matches)), "Query " + query + " within " + distance);
+                for (FuzzyIndex.Match<String> match : matches) {
+                    assertEquals(levenshtein(match.key(), query), match.distance());
+                }
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, length = 1 + random.nextInt(7); i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4))); // A small alphabet, so words are often close
+        }
+        return word.toString();
+    }
+
+    private static String mutate(String word, Random random) {
+        StringBuilder mutated = new StringBuilder(word);
+        for (int i = 0, edits = 1 + random.nextInt(2); i < edits; i++) {
+            int position = random.nextInt(mutated.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> mutated.insert(position, (char) ('a' + random.nextInt(4)));
+                case 1 -> {
+                    if (position < mutated.length()) mutated.deleteCharAt(position);
+                }
+                default -> {
+                    if (position < mutated.length()) mutated.setCharAt(position, (char) ('a' + random.nextInt(4)));
+                }
+            }
+        }
+        return mutated.toString();
+    }
+}
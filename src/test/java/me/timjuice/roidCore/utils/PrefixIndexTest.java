@@ -0,0 +1,110 @@
+package me.timjuice.roidCore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+    private static final List<String> PLAYERS = List.of("Steve", "alex", "Notch", "steveo", "Stevenson", "jeb_", "Alexa");
+
+    @Test
+    void completesIgnoringCaseAndKeepsOriginalKeys() {
+        PrefixIndex<String> index = PrefixIndex.of(PLAYERS);
+
+        assertEquals(List.of("Steve", "Stevenson", "steveo"), index.complete("st"));
+        assertEquals(List.of("Steve", "Stevenson", "steveo"), index.complete("STEVE"));
+        assertEquals(List.of("alex", "Alexa"), index.complete("aLeX"));
+        assertEquals(List.of("Notch"), index.complete("notch"));
+        assertEquals(List.of(), index.complete("notchy"));
+        assertEquals(List.of(), index.complete("z"));
+    }
+
+    @Test
+    void emptyPrefixCompletesEverythingInFoldedOrder() {
+        PrefixIndex<String> index = PrefixIndex.of(PLAYERS);
+
+        assertEquals(List.of("alex", "Alexa", "jeb_", "Notch", "Steve", "Stevenson", "steveo"), index.complete(""));
+        assertEquals(index.keys(), index.complete(""));
+        assertEquals(PLAYERS.size(), index.size());
+    }
+
+    @Test
+    void limitCapsTheResults() {
+        PrefixIndex<String> index = PrefixIndex.of(PLAYERS);
+
+        assertEquals(List.of("Steve", "Stevenson"), index.complete("s", 2));
+        assertEquals(List.of(), index.complete("s", 0));
+        assertEquals(List.of(), index.complete("s", -1));
+    }
+
+    @Test
+    void rangeMapsToValues() {
+        Map<String, Integer> commands = new LinkedHashMap<>();
+        commands.put("Reload", 1);
+        commands.put("reset", 2);
+        commands.put("help", 3);
+        PrefixIndex<Integer> index = PrefixIndex.of(commands);
+
+        int start = index.start("RE");
+        int end = index.end("RE");
+        assertEquals(2, end - start);
+        assertEquals("Reload", index.getKey(start));
+        assertEquals(Integer.valueOf(1), index.getValue(start));
+        assertEquals("reset", index.getKey(start + 1));
+        assertEquals(Integer.valueOf(2), index.getValue(start + 1));
+        assertEquals(index.start("x"), index.end("x"));
+    }
+
+    @Test
+    void emptyIndex() {
+        PrefixIndex<String> index = PrefixIndex.of(List.of());
+
+        assertTrue(index.isEmpty());
+        assertSame(PrefixIndex.empty(), index);
+        assertEquals(List.of(), index.complete(""));
+        assertEquals(0, index.start("a"));
+        assertEquals(0, index.end("a"));
+    }
+
+    @Test
+    void completionListsAreCopies() {
+        PrefixIndex<String> index = PrefixIndex.of(PLAYERS);
+
+        List<String> completions = index.complete("st");
+        completions.add("other"); // Bukkit may modify the list it gets back
+        assertEquals(3, index.complete("st").size());
+        assertThrows(UnsupportedOperationException.class, () -> index.keys().add("other"));
+    }
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(5);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int j = 0, length = 1 + random.nextInt(5); j < length; j++) {
+                char c = (char) ('a' + random.nextInt(3));
+                key.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+            }
+            keys.add(key.toString());
+        }
+        PrefixIndex<String> index = PrefixIndex.of(keys);
+
+        for (String prefix : List.of("", "a", "B", "ab", "Cab", "abca", "bbbbb", "cc")) {
+            String folded = prefix.toLowerCase(Locale.ROOT);
+            long expected = keys.stream().filter(key -> key.toLowerCase(Locale.ROOT).startsWith(folded)).count();
+            List<String> completions = index.complete(prefix);
+            assertEquals(expected, completions.size(), "Prefix " + prefix);
+            for (String completion : completions) {
+                assertTrue(completion.toLowerCase(Locale.ROOT).startsWith(folded), completion + " for " + prefix);
+            }
+        }
+    }
+}
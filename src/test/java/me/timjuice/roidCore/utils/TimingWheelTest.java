@@ -0,0 +1,134 @@
+package me.timjuice.roidCore.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 50L;
+
+    private final TimingWheel wheel = new TimingWheel(null, TICK, 0L);
+    private long now;
+
+    @Test
+    void runsOnceTheDeadlineIsReached() {
+        List<String> ran = new ArrayList<>();
+        wheel.schedule(120L, () -> ran.add("a"));
+
+        assertEquals(0, wheel.advance(100L));
+        assertEquals(List.of(), ran);
+        assertEquals(1, wheel.advance(150L)); // Deadlines are rounded up to the next tick
+        assertEquals(List.of("a"), ran);
+        assertEquals(0, wheel.advance(1000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void passedDeadlineRunsOnNextAdvance() {
+        wheel.advance(500L);
+        TimingWheel.Timeout timeout = wheel.schedule(100L, () -> { });
+        assertTrue(timeout.isPending());
+        assertEquals(1, wheel.advance(550L));
+        assertFalse(timeout.isPending());
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() {
+        boolean[] ran = new boolean[1];
+        TimingWheel.Timeout timeout = wheel.schedule(200L, () -> ran[0] = true);
+        wheel.schedule(200L, () -> { });
+        assertEquals(2, wheel.size());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertFalse(timeout.isPending());
+        assertEquals(1, wheel.size());
+
+        assertEquals(1, wheel.advance(1000L));
+        assertFalse(ran[0]);
+    }
+
+    @Test
+    void taskMayCancelAnotherOfTheSameBucket() {
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        int[] runs = new int[1];
+        for (int i = 0; i < 2; i++) {
+            timeouts.add(wheel.schedule(100L, () -> {
+                runs[0]++;
+                timeouts.forEach(TimingWheel.Timeout::cancel);
+            }));
+        }
+        wheel.advance(100L);
+        assertEquals(1, runs[0]);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void taskMayScheduleAnother() {
+        List<Long> ran = new ArrayList<>();
+        wheel.schedule(100L, () -> wheel.schedule(100L, () -> ran.add(now)));
+        now = 100L;
+        wheel.advance(now);
+        assertEquals(List.of(), ran); // Never within the tick that scheduled it
+        now = 150L;
+        wheel.advance(now);
+        assertEquals(List.of(150L), ran);
+    }
+
+    @Test
+    void cascadesAcrossEveryLevel() {
+        Random random = new Random(42);
+        int count = 2000;
+        long[] deadlines = new long[count];
+        long[] ranAt = new long[count];
+        for (int i = 0; i < count; i++) {
+            // Spread over all four levels of 64^n ticks and past them, into the overflow list
+            long range = TICK << Math.min(6 * (1 + i % 5), 26);
+            deadlines[i] = 1 + (long) (random.nextDouble() * range);
+            int index = i;
+            wheel.schedule(deadlines[i], () -> ranAt[index] = now);
+        }
+        assertEquals(count, wheel.size());
+
+        long end = TICK << 27;
+        while (now < end) {
+            now += TICK * (1 + random.nextInt(5000));
+            wheel.advance(now);
+        }
+
+        assertEquals(0, wheel.size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(ranAt[i] >= deadlines[i], "Timeout " + i + " ran early");
+        }
+    }
+
+    @Test
+    void runsWithinOneTickOfTheDeadline() {
+        Random random = new Random(7);
+        int count = 500;
+        long[] deadlines = new long[count];
+        long[] ranAt = new long[count];
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = 1 + random.nextInt(300_000);
+            int index = i;
+            wheel.schedule(deadlines[i], () -> ranAt[index] = now);
+        }
+
+        while (wheel.size() > 0) {
+            now += TICK;
+            wheel.advance(now);
+        }
+        for (int i = 0; i < count; i++) {
+            assertTrue(ranAt[i] >= deadlines[i] && ranAt[i] < deadlines[i] + TICK, "Timeout " + i + " ran at " + ranAt[i]);
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveTick() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(null, 0L, 0L));
+    }
+}